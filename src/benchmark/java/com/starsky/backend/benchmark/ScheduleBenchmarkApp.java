@@ -0,0 +1,30 @@
+package com.starsky.backend.benchmark;
+
+import com.starsky.backend.service.schedule.solve.SolvedSchedule;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+
+import java.util.List;
+
+/**
+ * Runs every solver configuration of {@code scheduleBenchmarkConfig.xml} on generated schedules. Without arguments the presets of
+ * {@link ScheduleProblemGenerator} are used, otherwise a single problem is generated from: employees, shifts per day, weeks, availability density.
+ * The HTML report is written to {@code build/benchmark}.
+ */
+public class ScheduleBenchmarkApp {
+    private static final long SEED = 37;
+
+    public static void main(String[] args) {
+        List<SolvedSchedule> problems;
+        if (args.length == 0) {
+            problems = ScheduleProblemGenerator.generatePresets(SEED);
+        } else if (args.length == 4) {
+            problems = List.of(new ScheduleProblemGenerator(SEED).generate(Integer.parseInt(args[0].trim()), Integer.parseInt(args[1].trim()),
+                    Integer.parseInt(args[2].trim()), Double.parseDouble(args[3].trim())));
+        } else {
+            throw new IllegalArgumentException("Expected no arguments or: employees, shifts per day, weeks, availability density.");
+        }
+
+        var benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource("scheduleBenchmarkConfig.xml");
+        benchmarkFactory.buildPlannerBenchmark(problems).benchmark();
+    }
+}
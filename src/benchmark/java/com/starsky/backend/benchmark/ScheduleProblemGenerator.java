@@ -0,0 +1,104 @@
+package com.starsky.backend.benchmark;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.EmployeeAvailability;
+import com.starsky.backend.domain.schedule.Schedule;
+import com.starsky.backend.domain.schedule.ScheduleShift;
+import com.starsky.backend.domain.user.NotificationType;
+import com.starsky.backend.domain.user.Role;
+import com.starsky.backend.domain.user.User;
+import com.starsky.backend.service.schedule.solve.ScheduleLimits;
+import com.starsky.backend.service.schedule.solve.SolvedSchedule;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic schedules for benchmarking the solver. Shifts are spread over the days of the given weeks, every employee is
+ * available for a shift with the given probability, and a part of the availabilities only covers a half of the shift.
+ * The same seed always generates the same problem.
+ */
+public class ScheduleProblemGenerator {
+    private static final Instant SCHEDULE_START = Instant.parse("2021-01-04T00:00:00Z");
+    private static final int FIRST_SHIFT_HOUR = 6;
+    private static final int SHIFT_HOURS = 8;
+    private static final double PARTIAL_AVAILABILITY_RATIO = 0.2;
+
+    private final long seed;
+
+    public ScheduleProblemGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param employees           number of team members
+     * @param shiftsPerDay        number of consecutive 8 hour shifts per day, at most 3
+     * @param weeks               number of weeks the schedule lasts
+     * @param availabilityDensity probability (0-1) that an employee is available for a shift
+     */
+    public SolvedSchedule generate(int employees, int shiftsPerDay, int weeks, double availabilityDensity) {
+        if (shiftsPerDay < 1 || shiftsPerDay > 3) {
+            throw new IllegalArgumentException("Shifts per day must be between 1 and 3 (was %d).".formatted(shiftsPerDay));
+        }
+        var random = new Random(seed);
+        int days = weeks * 7;
+        var scheduleEnd = SCHEDULE_START.plus(Duration.ofDays(days));
+        // enough shifts so that the roster can be filled, but not so many that the limits never bite
+        int requiredPerShift = Math.max(1, employees / (shiftsPerDay * 3));
+        int maxShiftsPerEmployee = (int) Math.ceil((double) days * shiftsPerDay * requiredPerShift / employees) + 1;
+        var schedule = new Schedule("Benchmark %dx%dx%d".formatted(employees, shiftsPerDay, weeks), SCHEDULE_START, scheduleEnd, null,
+                maxShiftsPerEmployee * SHIFT_HOURS, maxShiftsPerEmployee, SHIFT_HOURS);
+
+        var users = new ArrayList<User>();
+        for (int i = 0; i < employees; i++) {
+            var user = new User("Employee %d".formatted(i), "employee%d@starsky.com".formatted(i), null, "Employee", null,
+                    true, NotificationType.EMAIL, Role.EMPLOYEE, null, true);
+            user.setId(i + 1);
+            users.add(user);
+        }
+
+        var shifts = new ArrayList<ScheduleShift>();
+        var assignments = new ArrayList<EmployeeAssignment>();
+        long availabilityId = 1;
+        for (int day = 0; day < days; day++) {
+            for (int shiftOfDay = 0; shiftOfDay < shiftsPerDay; shiftOfDay++) {
+                var start = SCHEDULE_START.plus(Duration.ofDays(day)).plus(Duration.ofHours(FIRST_SHIFT_HOUR + (long) shiftOfDay * SHIFT_HOURS));
+                var end = start.plus(Duration.ofHours(SHIFT_HOURS));
+                var shift = new ScheduleShift(start, end, schedule, requiredPerShift);
+                shift.setId((long) shifts.size() + 1);
+
+                var availabilities = new ArrayList<EmployeeAvailability>();
+                for (var user : users) {
+                    if (random.nextDouble() >= availabilityDensity) {
+                        continue;
+                    }
+                    var availabilityEnd = random.nextDouble() < PARTIAL_AVAILABILITY_RATIO ? start.plus(Duration.ofHours(SHIFT_HOURS / 2)) : end;
+                    var availability = new EmployeeAvailability(user, shift, start, availabilityEnd, SHIFT_HOURS);
+                    availability.setId(availabilityId++);
+                    availabilities.add(availability);
+                }
+                shift.setEmployeeAvailabilities(availabilities);
+                shifts.add(shift);
+
+                for (int i = 0; i < requiredPerShift; i++) {
+                    var assignment = new EmployeeAssignment(null, shift, start, end);
+                    assignment.setPlanningId((long) assignments.size());
+                    assignments.add(assignment);
+                }
+            }
+        }
+
+        return new SolvedSchedule(1, new ScheduleLimits(schedule), shifts, users, assignments);
+    }
+
+    public static List<SolvedSchedule> generatePresets(long seed) {
+        var generator = new ScheduleProblemGenerator(seed);
+        return List.of(
+                generator.generate(10, 2, 1, 0.7),
+                generator.generate(40, 3, 4, 0.6),
+                generator.generate(120, 3, 8, 0.5));
+    }
+}
@@ -0,0 +1,56 @@
+package com.starsky.backend.benchmark;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.service.schedule.solve.ScheduleConstraintProvider;
+import com.starsky.backend.service.schedule.solve.SolvedSchedule;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full score calculation of {@link ScheduleConstraintProvider} on fixed, fully assigned generated schedules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ScoreCalculationBenchmark {
+    private static final long SEED = 37;
+
+    /**
+     * Index into {@link ScheduleProblemGenerator#generatePresets(long)}.
+     */
+    @Param({"0", "1", "2"})
+    public int preset;
+
+    private ScoreManager<SolvedSchedule, HardSoftScore> scoreManager;
+    private SolvedSchedule schedule;
+
+    @Setup
+    public void setup() {
+        var solverConfig = new SolverConfig()
+                .withSolutionClass(SolvedSchedule.class)
+                .withEntityClasses(EmployeeAssignment.class)
+                .withConstraintProviderClass(ScheduleConstraintProvider.class);
+        scoreManager = ScoreManager.create(SolverFactory.create(solverConfig));
+
+        schedule = ScheduleProblemGenerator.generatePresets(SEED).get(preset);
+        var random = new Random(SEED);
+        var employees = schedule.getEmployees();
+        for (var assignment : schedule.getEmployeeAssignments()) {
+            assignment.setEmployee(employees.get(random.nextInt(employees.size())));
+        }
+    }
+
+    @Benchmark
+    public HardSoftScore calculateScore() {
+        return scoreManager.updateScore(schedule);
+    }
+}
@@ -0,0 +1,69 @@
+package com.starsky.backend.benchmark;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.ShiftDate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time interval checks that the constraint streams call for every move.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShiftDateBenchmark {
+    private static final int SIZE = 1024;
+
+    private ShiftDate[] shiftDates;
+    private ShiftDate[] availabilityDates;
+    private EmployeeAssignment[] assignments;
+
+    @Setup
+    public void setup() {
+        var random = new Random(37);
+        var start = Instant.parse("2021-01-04T00:00:00Z");
+        shiftDates = new ShiftDate[SIZE];
+        availabilityDates = new ShiftDate[SIZE];
+        assignments = new EmployeeAssignment[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            var shiftStart = start.plus(Duration.ofHours(random.nextInt(24 * 28)));
+            var shiftEnd = shiftStart.plus(Duration.ofHours(8));
+            var availabilityStart = shiftStart.plus(Duration.ofHours(random.nextInt(5) - 2));
+            shiftDates[i] = new ShiftDate(shiftStart, shiftEnd);
+            availabilityDates[i] = new ShiftDate(availabilityStart, availabilityStart.plus(Duration.ofHours(8)));
+            assignments[i] = new EmployeeAssignment(null, null, shiftStart, shiftEnd);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void isSubsetOfShift(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(availabilityDates[i].isSubsetOfShift(shiftDates[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dayIndex(Blackhole blackhole) {
+        for (var assignment : assignments) {
+            blackhole.consume(assignment.getDayIndex());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void hourDuration(Blackhole blackhole) {
+        for (var assignment : assignments) {
+            blackhole.consume(assignment.getHourDuration());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.starsky.backend.benchmark;
+
+import com.starsky.backend.service.schedule.solve.SolvedSchedule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the planning problem from already loaded shifts, employees and assignments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolvedScheduleBenchmark {
+
+    /**
+     * Index into {@link ScheduleProblemGenerator#generatePresets(long)}.
+     */
+    @Param({"0", "1", "2"})
+    public int preset;
+
+    private SolvedSchedule template;
+
+    @Setup
+    public void setup() {
+        template = ScheduleProblemGenerator.generatePresets(37).get(preset);
+    }
+
+    @Benchmark
+    public SolvedSchedule construct() {
+        return new SolvedSchedule(template.getScheduleId(), template.getLimits(), template.getShifts(), template.getEmployees(), template.getEmployeeAssignments());
+    }
+}
@@ -20,6 +20,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.time.Duration;
@@ -31,6 +32,7 @@ import java.util.List;
 import java.util.UUID;
 
 @SpringBootApplication
+@EnableScheduling
 public class StarskyApplication {
 
     private final UserRepository userRepository;
@@ -5,7 +5,9 @@ import com.starsky.backend.api.schedule.ScheduleUnsolvableResponse;
 import com.starsky.backend.api.user.InviteInvalidResponse;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -43,6 +45,20 @@ class GlobalControllerExceptionHandler {
         return new ScheduleUnsolvableResponse(ex.getMessage());
     }
 
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    @ExceptionHandler(SolveJobCancelledException.class)
+    @ResponseBody
+    public ScheduleUnsolvableResponse handleSolveJobCancelled(SolveJobCancelledException ex) {
+        return new ScheduleUnsolvableResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(SolveQueueFullException.class)
+    @ResponseBody
+    public ResponseEntity<ScheduleUnsolvableResponse> handleSolveQueueFull(SolveQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(new ScheduleUnsolvableResponse(ex.getMessage()));
+    }
 
     @ResponseStatus(value = HttpStatus.FORBIDDEN)
     @ExceptionHandler(ForbiddenException.class)
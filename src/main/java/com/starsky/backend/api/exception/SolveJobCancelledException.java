@@ -0,0 +1,7 @@
+package com.starsky.backend.api.exception;
+
+public class SolveJobCancelledException extends Exception {
+    public SolveJobCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.starsky.backend.api.exception;
+
+import java.time.Duration;
+
+public class SolveQueueFullException extends Exception {
+    private final Duration retryAfter;
+
+    public SolveQueueFullException(String error, Duration retryAfter) {
+        super(error);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -3,12 +3,8 @@ package com.starsky.backend.api.schedule;
 import com.starsky.backend.api.BaseController;
 import com.starsky.backend.api.exception.DateRangeException;
 import com.starsky.backend.api.exception.ForbiddenException;
-import com.starsky.backend.api.exception.ScheduleUnsolvableException;
-import com.starsky.backend.api.schedule.assignment.EmployeeAssignmentResponse;
-import com.starsky.backend.domain.schedule.EmployeeAssignment;
 import com.starsky.backend.domain.schedule.Schedule;
 import com.starsky.backend.service.schedule.ScheduleService;
-import com.starsky.backend.service.schedule.solve.ScheduleSolveService;
 import com.starsky.backend.service.user.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -31,13 +27,11 @@ import java.util.Optional;
 @SecurityRequirement(name = "bearerAuth")
 public class ScheduleController extends BaseController {
     private final ScheduleService scheduleService;
-    private final ScheduleSolveService scheduleSolveService;
 
     @Autowired
-    public ScheduleController(UserService userService, ScheduleService scheduleService, ScheduleSolveService scheduleSolveService) {
+    public ScheduleController(UserService userService, ScheduleService scheduleService) {
         super(userService);
         this.scheduleService = scheduleService;
-        this.scheduleSolveService = scheduleSolveService;
     }
 
     @GetMapping("/user/schedules")
@@ -47,7 +41,7 @@ public class ScheduleController extends BaseController {
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = ScheduleResponse.class))))
     @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have manager role.", content = @Content)
     public ResponseEntity<ScheduleResponse[]> getSchedules(@RequestParam(value = "team_id", required = false) Optional<Long> teamId) {
-        var user = getAuthenticatedUser();
+        var user = getAuthenticatedPrincipal();
         ScheduleResponse[] schedules;
         if (teamId.isPresent()) {
             schedules = scheduleService.getSchedulesByTeam(user, teamId.get()).stream().map(Schedule::toResponse).toArray(ScheduleResponse[]::new);
@@ -65,25 +59,11 @@ public class ScheduleController extends BaseController {
     @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
     @ApiResponse(responseCode = "404", description = "Schedule does not exist.", content = @Content)
     public ResponseEntity<ScheduleResponse> getScheduleById(@PathVariable("schedule_id") long scheduleId) throws ForbiddenException {
-        var user = getAuthenticatedUser();
+        var user = getAuthenticatedPrincipal();
         var schedule = scheduleService.getSchedule(scheduleId, user);
         return ResponseEntity.ok(schedule.toResponse());
     }
 
-    @GetMapping("/user/schedules/{schedule_id}/solve")
-    @Operation(summary = "Get solved schedule's employee assignments", description = "Returns the solved schedule with employee assignments. " +
-            "Manager only route.")
-    @ApiResponse(responseCode = "200", description = "Response with the schedule.",
-            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = EmployeeAssignmentResponse.class))))
-    @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
-    @ApiResponse(responseCode = "404", description = "Schedule does not exist.", content = @Content)
-    @ApiResponse(responseCode = "422", description = "Schedule cannot be solved.", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScheduleUnsolvableResponse.class)))
-    public ResponseEntity<EmployeeAssignmentResponse[]> solveScheduleById(@PathVariable("schedule_id") long scheduleId) throws ForbiddenException, ScheduleUnsolvableException {
-        var user = getAuthenticatedUser();
-        var assignments = scheduleSolveService.solveSchedule(scheduleId, user);
-        return ResponseEntity.ok(assignments.stream().map(EmployeeAssignment::toResponse).toArray(EmployeeAssignmentResponse[]::new));
-    }
-
     @PostMapping("/user/teams/{team_id}/schedules")
     @Operation(summary = "Create a new schedule", description = "Creates a new schedule that is assigned to the specified team. Authenticated user must have manager role.")
     @ApiResponse(responseCode = "200", description = "Created a new schedule successfully.",
@@ -1,5 +1,6 @@
 package com.starsky.backend.api.schedule.assignment;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -15,10 +16,19 @@ public class CreateEmployeeAssignmentRequest {
     @JsonProperty("assignment_end")
     @Schema(example = "1617052176.7171679", title = "Epoch timestamp of assignment end", implementation = Double.class)
     private final Instant assignmentEnd;
+    @JsonProperty("locked")
+    @Schema(example = "true", title = "Locked assignments are kept as they are when the schedule is solved")
+    private final Boolean locked;
 
     public CreateEmployeeAssignmentRequest(Instant assignmentStart, Instant assignmentEnd) {
+        this(assignmentStart, assignmentEnd, false);
+    }
+
+    @JsonCreator
+    public CreateEmployeeAssignmentRequest(Instant assignmentStart, Instant assignmentEnd, Boolean locked) {
         this.assignmentStart = assignmentStart;
         this.assignmentEnd = assignmentEnd;
+        this.locked = locked;
     }
 
     public Instant getAssignmentEnd() {
@@ -28,4 +38,8 @@ public class CreateEmployeeAssignmentRequest {
     public Instant getAssignmentStart() {
         return assignmentStart;
     }
+
+    public boolean isLocked() {
+        return locked != null && locked;
+    }
 }
@@ -1,5 +1,6 @@
 package com.starsky.backend.api.schedule.assignment;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -27,13 +28,22 @@ public class EmployeeAssignmentResponse {
     @JsonProperty("shift_id")
     @Schema(example = "3")
     private final long shiftId;
+    @NotNull
+    @Schema(example = "false", title = "Locked assignments are kept as they are when the schedule is solved")
+    private final boolean locked;
 
     public EmployeeAssignmentResponse(Long id, Instant assignmentStart, Instant assignmentEnd, long employeeId, long shiftId) {
+        this(id, assignmentStart, assignmentEnd, employeeId, shiftId, false);
+    }
+
+    @JsonCreator
+    public EmployeeAssignmentResponse(Long id, Instant assignmentStart, Instant assignmentEnd, long employeeId, long shiftId, boolean locked) {
         this.assignmentStart = assignmentStart;
         this.assignmentEnd = assignmentEnd;
         this.employeeId = employeeId;
         this.shiftId = shiftId;
         this.id = id;
+        this.locked = locked;
     }
 
     public Instant getAssignmentStart() {
@@ -55,4 +65,8 @@ public class EmployeeAssignmentResponse {
     public Long getId() {
         return id;
     }
+
+    public boolean isLocked() {
+        return locked;
+    }
 }
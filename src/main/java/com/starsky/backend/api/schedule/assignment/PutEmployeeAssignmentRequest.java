@@ -1,5 +1,6 @@
 package com.starsky.backend.api.schedule.assignment;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -23,12 +24,21 @@ public class PutEmployeeAssignmentRequest {
     @JsonProperty("shift_id")
     @Schema(example = "3")
     private final long shiftId;
+    @JsonProperty("locked")
+    @Schema(example = "true", title = "Locked assignments are kept as they are when the schedule is solved")
+    private final Boolean locked;
 
     public PutEmployeeAssignmentRequest(Instant assignmentStart, Instant assignmentEnd, long employeeId, long shiftId) {
+        this(assignmentStart, assignmentEnd, employeeId, shiftId, false);
+    }
+
+    @JsonCreator
+    public PutEmployeeAssignmentRequest(Instant assignmentStart, Instant assignmentEnd, long employeeId, long shiftId, Boolean locked) {
         this.assignmentStart = assignmentStart;
         this.assignmentEnd = assignmentEnd;
         this.employeeId = employeeId;
         this.shiftId = shiftId;
+        this.locked = locked;
     }
 
     public Instant getAssignmentStart() {
@@ -46,4 +56,8 @@ public class PutEmployeeAssignmentRequest {
     public long getShiftId() {
         return shiftId;
     }
+
+    public boolean isLocked() {
+        return locked != null && locked;
+    }
 }
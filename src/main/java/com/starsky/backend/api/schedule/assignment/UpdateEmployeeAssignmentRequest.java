@@ -1,5 +1,6 @@
 package com.starsky.backend.api.schedule.assignment;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -13,10 +14,19 @@ public class UpdateEmployeeAssignmentRequest {
     @JsonProperty("assignment_end")
     @Schema(example = "1617102176.7171679", title = "Epoch timestamp of employee assignment end date", implementation = Double.class)
     private final Instant assignmentEnd;
+    @JsonProperty("locked")
+    @Schema(example = "true", title = "Locked assignments are kept as they are when the schedule is solved")
+    private final Boolean locked;
 
     public UpdateEmployeeAssignmentRequest(Instant assignmentStart, Instant assignmentEnd) {
+        this(assignmentStart, assignmentEnd, null);
+    }
+
+    @JsonCreator
+    public UpdateEmployeeAssignmentRequest(Instant assignmentStart, Instant assignmentEnd, Boolean locked) {
         this.assignmentStart = assignmentStart;
         this.assignmentEnd = assignmentEnd;
+        this.locked = locked;
     }
 
     public Optional<Instant> getAssignmentStart() {
@@ -26,4 +36,8 @@ public class UpdateEmployeeAssignmentRequest {
     public Optional<Instant> getAssignmentEnd() {
         return Optional.ofNullable(assignmentEnd);
     }
+
+    public Optional<Boolean> getLocked() {
+        return Optional.ofNullable(locked);
+    }
 }
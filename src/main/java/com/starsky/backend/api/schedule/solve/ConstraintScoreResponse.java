@@ -0,0 +1,37 @@
+package com.starsky.backend.api.schedule.solve;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.constraints.NotNull;
+
+public class ConstraintScoreResponse {
+    @NotNull
+    @Schema(example = "employee is not available", title = "Constraint name")
+    private final String constraint;
+    @NotNull
+    @Schema(example = "0hard/-3soft", title = "Score impact of all matches of the constraint")
+    private final String score;
+    @NotNull
+    @JsonProperty("match_count")
+    @Schema(example = "3", title = "Number of times the constraint is matched")
+    private final int matchCount;
+
+    public ConstraintScoreResponse(String constraint, String score, int matchCount) {
+        this.constraint = constraint;
+        this.score = score;
+        this.matchCount = matchCount;
+    }
+
+    public String getConstraint() {
+        return constraint;
+    }
+
+    public String getScore() {
+        return score;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+}
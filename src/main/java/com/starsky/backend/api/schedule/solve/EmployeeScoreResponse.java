@@ -0,0 +1,47 @@
+package com.starsky.backend.api.schedule.solve;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.constraints.NotNull;
+
+public class EmployeeScoreResponse {
+    @NotNull
+    @JsonProperty("employee_id")
+    @Schema(example = "1", title = "Employee (user) id")
+    private final long employeeId;
+    @NotNull
+    @JsonProperty("employee_name")
+    @Schema(example = "Jane Doe", title = "Employee name")
+    private final String employeeName;
+    @NotNull
+    @Schema(example = "0hard/-2soft", title = "Score impact of all constraint matches that involve the employee")
+    private final String score;
+    @NotNull
+    @JsonProperty("match_count")
+    @Schema(example = "2", title = "Number of constraint matches that involve the employee")
+    private final int matchCount;
+
+    public EmployeeScoreResponse(long employeeId, String employeeName, String score, int matchCount) {
+        this.employeeId = employeeId;
+        this.employeeName = employeeName;
+        this.score = score;
+        this.matchCount = matchCount;
+    }
+
+    public long getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public String getScore() {
+        return score;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+}
@@ -0,0 +1,168 @@
+package com.starsky.backend.api.schedule.solve;
+
+import com.starsky.backend.api.BaseController;
+import com.starsky.backend.api.exception.DateRangeException;
+import com.starsky.backend.api.exception.ForbiddenException;
+import com.starsky.backend.api.exception.ScheduleUnsolvableException;
+import com.starsky.backend.api.exception.SolveQueueFullException;
+import com.starsky.backend.api.schedule.ScheduleUnsolvableResponse;
+import com.starsky.backend.api.schedule.assignment.EmployeeAssignmentResponse;
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.service.schedule.solve.ScheduleSolveService;
+import com.starsky.backend.service.schedule.solve.SolveOptions;
+import com.starsky.backend.service.schedule.solve.SolveJobStatus;
+import com.starsky.backend.service.user.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE, value = "/user/schedules/{schedule_id}")
+@Tag(name = "Schedule solving", description = "Endpoints for solving schedules (automatic employee assignment)")
+@SecurityRequirement(name = "bearerAuth")
+public class ScheduleSolveController extends BaseController {
+    private final ScheduleSolveService scheduleSolveService;
+
+    @Autowired
+    public ScheduleSolveController(UserService userService, ScheduleSolveService scheduleSolveService) {
+        super(userService);
+        this.scheduleSolveService = scheduleSolveService;
+    }
+
+    @GetMapping("/solve")
+    @Operation(summary = "Get solved schedule's employee assignments", description = "Solves the schedule and returns the solved employee assignments once solving has finished. " +
+            "Prefer starting a solve job with POST, this route is kept for existing clients. " +
+            "Set warm_start to start from the employee assignments that are already saved for the schedule. " +
+            "Solving stops early once the solution stops improving, spent_limit_ms and unimproved_limit_ms override the limits of the server for this call. Manager only route.")
+    @ApiResponse(responseCode = "200", description = "Response with the schedule.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = EmployeeAssignmentResponse.class))))
+    @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Schedule does not exist.", content = @Content)
+    @ApiResponse(responseCode = "409", description = "Solving was cancelled before the solver started.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScheduleUnsolvableResponse.class)))
+    @ApiResponse(responseCode = "422", description = "Schedule cannot be solved.", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScheduleUnsolvableResponse.class)))
+    @ApiResponse(responseCode = "429", description = "Too many schedules are waiting to be solved, retry after the number of seconds in the Retry-After header.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScheduleUnsolvableResponse.class)))
+    public CompletableFuture<ResponseEntity<EmployeeAssignmentResponse[]>> solveScheduleById(@PathVariable("schedule_id") long scheduleId,
+                                                                                             @RequestParam(value = "warm_start", defaultValue = "false") boolean warmStart,
+                                                                                             @RequestParam(value = "spent_limit_ms", required = false) Long spentLimitMs,
+                                                                                             @RequestParam(value = "unimproved_limit_ms", required = false) Long unimprovedLimitMs) throws ForbiddenException, ScheduleUnsolvableException, SolveQueueFullException {
+        var user = getAuthenticatedUser();
+        // the servlet thread is released while solving, the response is written once the solver job finishes
+        return scheduleSolveService.solveSchedule(scheduleId, user, getSolveOptions(warmStart, spentLimitMs, unimprovedLimitMs))
+                .thenApply(assignments -> ResponseEntity.ok(assignments.stream().map(EmployeeAssignment::toResponse).toArray(EmployeeAssignmentResponse[]::new)));
+    }
+
+    @PostMapping("/solve")
+    @Operation(summary = "Start solving schedule", description = "Starts solving the schedule in the background and returns the solve job right away. " +
+            "Poll the solve job to get the solved employee assignments. " +
+            "Set warm_start to start from the employee assignments that are already saved for the schedule - re-solving after a small change converges much faster. " +
+            "Solving stops early once the solution stops improving, spent_limit_ms and unimproved_limit_ms override the limits of the server for this call. " +
+            "If too many schedules are being solved, the job waits in a queue (status SCHEDULED) - managers take turns, so one manager cannot hold back the jobs of others. Manager only route.")
+    @ApiResponse(responseCode = "202", description = "Solve job was accepted.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = SolveJobResponse.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Schedule does not exist.", content = @Content)
+    @ApiResponse(responseCode = "422", description = "Schedule cannot be solved.", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScheduleUnsolvableResponse.class)))
+    @ApiResponse(responseCode = "429", description = "Too many schedules are waiting to be solved, retry after the number of seconds in the Retry-After header.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScheduleUnsolvableResponse.class)))
+    public ResponseEntity<SolveJobResponse> postSolveJob(@PathVariable("schedule_id") long scheduleId,
+                                                         @RequestParam(value = "warm_start", defaultValue = "false") boolean warmStart,
+                                                         @RequestParam(value = "spent_limit_ms", required = false) Long spentLimitMs,
+                                                         @RequestParam(value = "unimproved_limit_ms", required = false) Long unimprovedLimitMs) throws ForbiddenException, ScheduleUnsolvableException, SolveQueueFullException {
+        var user = getAuthenticatedUser();
+        var job = scheduleSolveService.submitSolveJob(scheduleId, user, getSolveOptions(warmStart, spentLimitMs, unimprovedLimitMs));
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/solve/{job_id}")
+    @Operation(summary = "Get solve job", description = "Returns the status of the solve job and the employee assignments of the best solution found so far. " +
+            "Manager only route.")
+    @ApiResponse(responseCode = "200", description = "Response with the solve job.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = SolveJobResponse.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Solve job does not exist.", content = @Content)
+    public ResponseEntity<SolveJobResponse> getSolveJob(@PathVariable("schedule_id") long scheduleId, @PathVariable("job_id") UUID jobId) {
+        var user = getAuthenticatedUser();
+        return ResponseEntity.ok(scheduleSolveService.getSolveJobState(scheduleId, jobId, user));
+    }
+
+    @GetMapping(value = "/solve/{job_id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream solve job", description = "Streams server-sent events while the schedule is being solved. " +
+            "A 'best-solution' event is sent every time the solver finds a better solution, and a single 'finished' event with the final state of the job closes the stream. " +
+            "Jobs solved by another node only report that solving has started, their score and assignments arrive with the 'finished' event. " +
+            "Solving can be stopped early by cancelling the solve job. Manager only route.")
+    @ApiResponse(responseCode = "200", description = "Stream of solve job events.",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = SolveJobResponse.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Solve job does not exist.", content = @Content)
+    public Flux<ServerSentEvent<SolveJobResponse>> streamSolveJob(@PathVariable("schedule_id") long scheduleId, @PathVariable("job_id") UUID jobId) {
+        var user = getAuthenticatedUser();
+        // intermediate best solutions are always reported as SOLVING, only the last update carries the final status
+        return scheduleSolveService.getSolveJobUpdates(scheduleId, jobId, user).map(response -> ServerSentEvent.builder(response)
+                .event(response.getStatus().equals(SolveJobStatus.SOLVING.name()) ? "best-solution" : "finished")
+                .build());
+    }
+
+    @DeleteMapping("/solve/{job_id}")
+    @Operation(summary = "Cancel solve job", description = "Stops solving early. The best solution found until then is kept on the solve job. Manager only route.")
+    @ApiResponse(responseCode = "204", description = "Solve job was cancelled.", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Solve job does not exist.", content = @Content)
+    public ResponseEntity<Void> cancelSolveJob(@PathVariable("schedule_id") long scheduleId, @PathVariable("job_id") UUID jobId) {
+        var user = getAuthenticatedUser();
+        scheduleSolveService.cancelSolveJob(scheduleId, jobId, user);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/solve/{job_id}/apply")
+    @Operation(summary = "Apply solve job", description = "Saves the employee assignments of a finished solve job as the employee assignments of the schedule, in a single transaction. " +
+            "Same as putting the assignments of the solve job, without sending them back to the server. " +
+            "Please note that this operation is destructive - it deletes all of the existing employee assignments of the schedule. Manager only route.")
+    @ApiResponse(responseCode = "204", description = "Employee assignments were saved.", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Solve job, or a shift or employee of its solution does not exist.", content = @Content)
+    @ApiResponse(responseCode = "422", description = "Solve job has not finished or has failed.", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScheduleUnsolvableResponse.class)))
+    public ResponseEntity<Void> applySolveJob(@PathVariable("schedule_id") long scheduleId, @PathVariable("job_id") UUID jobId) throws ForbiddenException, ScheduleUnsolvableException, DateRangeException {
+        var user = getAuthenticatedUser();
+        scheduleSolveService.applySolveJob(scheduleId, jobId, user);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/score")
+    @Operation(summary = "Explain schedule score", description = "Explains the score of the saved employee assignments of the schedule - " +
+            "the score impact of every matched constraint and of every employee, worst first. Explanations are cached until the schedule or its assignments change. " +
+            "Manager only route.")
+    @ApiResponse(responseCode = "200", description = "Response with the score explanation.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScoreExplanationResponse.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated or does not have sufficient permissions.", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Schedule does not exist.", content = @Content)
+    @ApiResponse(responseCode = "422", description = "Schedule cannot be scored - it has no shifts or no available employees.", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ScheduleUnsolvableResponse.class)))
+    public ResponseEntity<ScoreExplanationResponse> explainScore(@PathVariable("schedule_id") long scheduleId) throws ForbiddenException, ScheduleUnsolvableException {
+        var user = getAuthenticatedUser();
+        return ResponseEntity.ok(scheduleSolveService.explainScore(scheduleId, user));
+    }
+
+    // limits that are not positive are ignored, the server limits are used instead
+    private SolveOptions getSolveOptions(boolean warmStart, Long spentLimitMs, Long unimprovedLimitMs) {
+        return new SolveOptions(warmStart, toDuration(spentLimitMs), toDuration(unimprovedLimitMs));
+    }
+
+    private Duration toDuration(Long milliseconds) {
+        return milliseconds == null || milliseconds <= 0 ? null : Duration.ofMillis(milliseconds);
+    }
+}
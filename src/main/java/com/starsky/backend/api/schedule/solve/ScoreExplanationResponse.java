@@ -0,0 +1,46 @@
+package com.starsky.backend.api.schedule.solve;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.constraints.NotNull;
+
+public class ScoreExplanationResponse {
+    @NotNull
+    @JsonProperty("schedule_id")
+    @Schema(example = "1", title = "Schedule id")
+    private final long scheduleId;
+    @NotNull
+    @Schema(example = "-1hard/-12soft", title = "Score of the saved employee assignments")
+    private final String score;
+    @NotNull
+    @ArraySchema(schema = @Schema(implementation = ConstraintScoreResponse.class), arraySchema = @Schema(title = "Score impact of every matched constraint, worst first"))
+    private final ConstraintScoreResponse[] constraints;
+    @NotNull
+    @ArraySchema(schema = @Schema(implementation = EmployeeScoreResponse.class), arraySchema = @Schema(title = "Score impact of the constraint matches of every employee, worst first"))
+    private final EmployeeScoreResponse[] employees;
+
+    public ScoreExplanationResponse(long scheduleId, String score, ConstraintScoreResponse[] constraints, EmployeeScoreResponse[] employees) {
+        this.scheduleId = scheduleId;
+        this.score = score;
+        this.constraints = constraints;
+        this.employees = employees;
+    }
+
+    public long getScheduleId() {
+        return scheduleId;
+    }
+
+    public String getScore() {
+        return score;
+    }
+
+    public ConstraintScoreResponse[] getConstraints() {
+        return constraints;
+    }
+
+    public EmployeeScoreResponse[] getEmployees() {
+        return employees;
+    }
+}
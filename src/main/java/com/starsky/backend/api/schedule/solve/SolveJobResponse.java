@@ -0,0 +1,66 @@
+package com.starsky.backend.api.schedule.solve;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.starsky.backend.api.schedule.assignment.EmployeeAssignmentResponse;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.constraints.NotNull;
+import java.util.UUID;
+
+public class SolveJobResponse {
+    @NotNull
+    @JsonProperty("job_id")
+    @Schema(example = "3fa85f64-5717-4562-b3fc-2c963f66afa6", title = "Solve job id")
+    private final UUID jobId;
+    @NotNull
+    @JsonProperty("schedule_id")
+    @Schema(example = "1", title = "Schedule that is being solved")
+    private final long scheduleId;
+    @NotNull
+    @Schema(example = "SOLVING", title = "Solve job status", allowableValues = {"SCHEDULED", "SOLVING", "COMPLETED", "CANCELLED", "FAILED"})
+    private final String status;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(example = "0hard/-12soft", title = "Score of the best solution")
+    private final String score;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(example = "Solving failed due to out of memory.", title = "Error describing why solving failed")
+    private final String error;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @ArraySchema(schema = @Schema(implementation = EmployeeAssignmentResponse.class), arraySchema = @Schema(title = "Employee assignments of the best solution found so far"))
+    private final EmployeeAssignmentResponse[] assignments;
+
+    public SolveJobResponse(UUID jobId, long scheduleId, String status, String score, String error, EmployeeAssignmentResponse[] assignments) {
+        this.jobId = jobId;
+        this.scheduleId = scheduleId;
+        this.status = status;
+        this.score = score;
+        this.error = error;
+        this.assignments = assignments;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public long getScheduleId() {
+        return scheduleId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getScore() {
+        return score;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public EmployeeAssignmentResponse[] getAssignments() {
+        return assignments;
+    }
+}
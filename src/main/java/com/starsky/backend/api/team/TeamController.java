@@ -42,7 +42,7 @@ public class TeamController extends BaseController {
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = TeamResponse.class))))
     @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated.", content = @Content)
     public ResponseEntity<TeamResponse[]> getTeams() {
-        var user = getAuthenticatedUser();
+        var user = getAuthenticatedPrincipal();
         var teams = teamService.getTeams(user).stream().map(Team::toResponse).toArray(TeamResponse[]::new);
         return ResponseEntity.ok(teams);
     }
@@ -54,7 +54,7 @@ public class TeamController extends BaseController {
     @ApiResponse(responseCode = "403", description = "Forbidden, user is not authenticated.", content = @Content)
     @ApiResponse(responseCode = "404", description = "Team does not exist.", content = @Content)
     public ResponseEntity<UserResponse[]> getTeamMembers(@PathVariable("team_id") long teamId) {
-        var user = getAuthenticatedUser();
+        var user = getAuthenticatedPrincipal();
         var teamMembers = teamService.getTeamMembers(teamId, user).stream().map(teamMember -> teamMember.getMember().toResponse()).toArray(UserResponse[]::new);
         return ResponseEntity.ok(teamMembers);
     }
@@ -0,0 +1,93 @@
+package com.starsky.backend.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * A small in-memory cache whose entries expire after a fixed time to live. Once the cache is full, the least recently used entry is evicted.
+ * It is safe to use from multiple threads.
+ */
+public class ExpiringCache<K, V> {
+    private final int maxSize;
+    private final Duration timeToLive;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public ExpiringCache(int maxSize, Duration timeToLive) {
+        this(maxSize, timeToLive, Clock.systemUTC());
+    }
+
+    public ExpiringCache(int maxSize, Duration timeToLive, Clock clock) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        // access order, so that the eldest entry is always the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(K key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!clock.instant().isBefore(entry.expiresAt)) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    public synchronized void put(K key, V value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.instant().plus(timeToLive)));
+    }
+
+    /**
+     * Puts an entry that expires after the time to live or at expiresAt, whichever comes first.
+     */
+    public synchronized void put(K key, V value, Instant expiresAt) {
+        if (maxSize <= 0) {
+            return;
+        }
+        var expiresAfterTimeToLive = clock.instant().plus(timeToLive);
+        entries.put(key, new Entry<>(value, expiresAt.isBefore(expiresAfterTimeToLive) ? expiresAt : expiresAfterTimeToLive));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final Instant expiresAt;
+
+        private Entry(V value, Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
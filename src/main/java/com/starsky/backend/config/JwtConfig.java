@@ -1,5 +1,8 @@
 package com.starsky.backend.config;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
@@ -7,14 +10,33 @@ import java.time.Duration;
 
 @Configuration
 public class JwtConfig {
-
-    @Value("${jwt.secret}")
-    private String secret;
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "user_id";
+    public static final String MANAGER_ID_CLAIM = "manager_id";
+
+    private final String secret;
+    // algorithm and verifier are thread safe, so every token is signed and verified with the same instances
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    public JwtConfig(@Value("${jwt.secret}") String secret) {
+        this.secret = secret;
+        this.algorithm = Algorithm.HMAC512(secret.getBytes());
+        this.verifier = JWT.require(algorithm).build();
+    }
 
     public String getSecret() {
         return secret;
     }
 
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public JWTVerifier getVerifier() {
+        return verifier;
+    }
+
     public String getTokenPrefix() {
         return "Bearer ";
     }
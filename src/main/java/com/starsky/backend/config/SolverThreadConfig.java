@@ -0,0 +1,197 @@
+package com.starsky.backend.config;
+
+import com.starsky.backend.service.schedule.solve.SolveScheduler;
+import com.starsky.backend.service.schedule.solve.SolvedSchedule;
+import com.starsky.backend.service.schedule.solve.WeeklySchedulePartitioner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicType;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Decides how many threads schedule solving may use on this host. Every solve job gets one solver thread and, with multi-threaded
+ * incremental solving, a number of move threads on top of it. The number of jobs that solve at the same time is capped, so that
+ * all solve jobs together never use more than the available cores minus the cores that are reserved for the REST endpoints.
+ * Jobs above the cap wait in the queue of the {@link SolveScheduler}, which lets the jobs of different managers take turns.
+ * <p>
+ * Both counts can be set to AUTO (detected from the number of cores) or to a number, the move thread count can also be NONE.
+ * <p>
+ * With partitioned search enabled, the weeks of a schedule are first solved in parallel on the cores of the job, and a local search on
+ * the whole schedule follows to reconcile the per employee limits across weeks.
+ */
+@Configuration
+public class SolverThreadConfig {
+    public static final String AUTO = "AUTO";
+    public static final String NONE = "NONE";
+    // below this many cores for a single job, move threads cost more in synchronization than they gain
+    private static final int MIN_CORES_FOR_MOVE_THREADS = 4;
+    // more move threads than this hardly speed up solving schedules of our size
+    private static final int MAX_AUTO_MOVE_THREADS = 4;
+
+    private final String moveThreadCount;
+    private final String parallelSolverCount;
+    private final int reservedCores;
+    private final int availableCores;
+    private final boolean partitionedSearch;
+    private final Duration partUnimprovedLimit;
+    private final int moveThreads;
+    private final int parallelSolvers;
+
+    private final Logger logger = LoggerFactory.getLogger(SolverThreadConfig.class);
+
+    @Autowired
+    public SolverThreadConfig(@Value("${starsky.solver.move-thread-count:AUTO}") String moveThreadCount,
+                              @Value("${starsky.solver.parallel-solver-count:AUTO}") String parallelSolverCount,
+                              @Value("${starsky.solver.reserved-cores:2}") int reservedCores,
+                              @Value("${starsky.solver.partitioned-search.enabled:false}") boolean partitionedSearch,
+                              @Value("${starsky.solver.partitioned-search.part-unimproved-limit:1s}") Duration partUnimprovedLimit) {
+        this(moveThreadCount, parallelSolverCount, reservedCores, partitionedSearch, partUnimprovedLimit, Runtime.getRuntime().availableProcessors());
+    }
+
+    SolverThreadConfig(String moveThreadCount, String parallelSolverCount, int reservedCores, boolean partitionedSearch,
+                       Duration partUnimprovedLimit, int availableCores) {
+        this.moveThreadCount = moveThreadCount.trim().toUpperCase();
+        this.parallelSolverCount = parallelSolverCount.trim().toUpperCase();
+        this.reservedCores = reservedCores;
+        this.availableCores = availableCores;
+        this.partitionedSearch = partitionedSearch;
+        this.partUnimprovedLimit = partUnimprovedLimit;
+        this.moveThreads = resolveMoveThreadCount();
+        this.parallelSolvers = resolveParallelSolverCount(moveThreads);
+    }
+
+    @Bean
+    public SolverManager<SolvedSchedule, UUID> solverManager(SolverConfig solverConfig) {
+        logger.info("Solving with {} move thread(s) per job and at most {} job(s) at once ({} cores, {} reserved).",
+                moveThreads, parallelSolvers, availableCores, reservedCores);
+
+        var config = new SolverConfig(solverConfig)
+                .withMoveThreadCount(moveThreads == 0 ? SolverConfig.MOVE_THREAD_COUNT_NONE : String.valueOf(moveThreads));
+        if (partitionedSearch) {
+            int partThreads = getPartThreads();
+            logger.info("Solving weeks of a schedule in parallel with {} thread(s) per job.", partThreads);
+            config.setPhaseConfigList(getPartitionedPhases(partThreads));
+        } else {
+            config.setPhaseConfigList(List.of(getConstructionHeuristic(), new LocalSearchPhaseConfig()));
+        }
+        return SolverManager.create(SolverFactory.create(config), new SolverManagerConfig().withParallelSolverCount(String.valueOf(parallelSolvers)));
+    }
+
+    @Bean
+    public SolveScheduler solveScheduler(MeterRegistry meterRegistry,
+                                         @Value("${starsky.solver.scheduler.max-running-per-owner:2}") int maxRunningPerOwner,
+                                         @Value("${starsky.solver.scheduler.max-queued:40}") int maxQueued,
+                                         @Value("${starsky.solver.scheduler.max-queued-per-owner:5}") int maxQueuedPerOwner) {
+        // the scheduler hands over only as many jobs as the solver manager solves at once, so that no job waits in the solver manager's own queue
+        return new SolveScheduler(parallelSolvers, maxRunningPerOwner, maxQueued, maxQueuedPerOwner, meterRegistry);
+    }
+
+    int getMoveThreads() {
+        return moveThreads;
+    }
+
+    int getParallelSolvers() {
+        return parallelSolvers;
+    }
+
+    /**
+     * Weeks of a job that are solved at once. Every part thread runs with the move threads of the job, so a job takes part threads times
+     * its move threads cores and all jobs together still fit into the solving cores.
+     */
+    int getPartThreads() {
+        return Math.max(1, getSolvingCores() / (parallelSolvers * Math.max(1, moveThreads)));
+    }
+
+    /**
+     * Cores that solving may use in total, at least one.
+     */
+    int getSolvingCores() {
+        return Math.max(1, availableCores - reservedCores);
+    }
+
+    private List<PhaseConfig> getPartitionedPhases(int partThreads) {
+        // every week stops once it stops improving, the final local search runs until the job terminates
+        var partLocalSearch = new LocalSearchPhaseConfig();
+        partLocalSearch.setTerminationConfig(new TerminationConfig().withUnimprovedMillisecondsSpentLimit(partUnimprovedLimit.toMillis()));
+
+        var partitionedSearchPhase = new PartitionedSearchPhaseConfig();
+        partitionedSearchPhase.setSolutionPartitionerClass(WeeklySchedulePartitioner.class);
+        partitionedSearchPhase.setRunnablePartThreadLimit(String.valueOf(partThreads));
+        partitionedSearchPhase.setPhaseConfigList(List.of(getConstructionHeuristic(), partLocalSearch));
+
+        return List.of(partitionedSearchPhase, new LocalSearchPhaseConfig());
+    }
+
+    /**
+     * Assigns the assignments of the shifts with the fewest available employees first, trying the employees that are available for the fewest
+     * shifts first - see {@link com.starsky.backend.service.schedule.solve.EmployeeAssignmentDifficultyWeightFactory} and
+     * {@link com.starsky.backend.service.schedule.solve.EmployeeStrengthWeightFactory}.
+     */
+    private ConstructionHeuristicPhaseConfig getConstructionHeuristic() {
+        var constructionHeuristic = new ConstructionHeuristicPhaseConfig();
+        constructionHeuristic.setConstructionHeuristicType(ConstructionHeuristicType.WEAKEST_FIT_DECREASING);
+        return constructionHeuristic;
+    }
+
+    private int resolveMoveThreadCount() {
+        int solvingCores = getSolvingCores();
+        if (moveThreadCount.equals(NONE)) {
+            return 0;
+        }
+        if (moveThreadCount.equals(AUTO)) {
+            return solvingCores < MIN_CORES_FOR_MOVE_THREADS ? 0 : Math.min(MAX_AUTO_MOVE_THREADS, solvingCores / 2);
+        }
+
+        int configured = parseCount("starsky.solver.move-thread-count", moveThreadCount, 1);
+        if (configured > solvingCores) {
+            logger.warn("Move thread count {} does not fit into {} solving core(s), using {} instead.", configured, solvingCores, solvingCores);
+            return solvingCores;
+        }
+        return configured;
+    }
+
+    private int resolveParallelSolverCount(int moveThreads) {
+        // move threads do the heavy lifting, the solver thread only waits for them - so a job takes as many cores as it has move threads
+        int coresPerJob = Math.max(1, moveThreads);
+        int maxParallelSolvers = Math.max(1, getSolvingCores() / coresPerJob);
+        if (parallelSolverCount.equals(AUTO)) {
+            return maxParallelSolvers;
+        }
+
+        int configured = parseCount("starsky.solver.parallel-solver-count", parallelSolverCount, 1);
+        if (configured > maxParallelSolvers) {
+            logger.warn("Parallel solver count {} would oversubscribe {} solving core(s) with {} core(s) per job, using {} instead.",
+                    configured, getSolvingCores(), coresPerJob, maxParallelSolvers);
+            return maxParallelSolvers;
+        }
+        return configured;
+    }
+
+    private int parseCount(String property, String value, int min) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= min) {
+                return count;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Property %s must be %s or a number of at least %d (was %s).".formatted(property, AUTO, min, value));
+    }
+}
@@ -3,25 +3,26 @@ package com.starsky.backend.domain.schedule;
 import com.starsky.backend.api.schedule.assignment.EmployeeAssignmentResponse;
 import com.starsky.backend.domain.BaseEntity;
 import com.starsky.backend.domain.user.User;
+import com.starsky.backend.service.schedule.solve.EmployeeAssignmentDifficultyWeightFactory;
+import com.starsky.backend.service.schedule.solve.EmployeeStrengthWeightFactory;
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.entity.PlanningPin;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
-import java.time.Duration;
 import java.time.Instant;
-import java.time.ZoneOffset;
-import java.util.UUID;
 
 @Entity
-@PlanningEntity
+@PlanningEntity(difficultyWeightFactoryClass = EmployeeAssignmentDifficultyWeightFactory.class)
 public class EmployeeAssignment extends BaseEntity {
     // planning ID and shift date are used for OptaPlanner and are transient (not an actual field in database)
     // entity ID isn't used since it's a generated value and we can't get it's value before persisting (at least not an easy way to do it or without hitting DB)
+    // planning IDs are sequential numbers that are only assigned when the assignment becomes part of a problem that is being solved
     @Transient
     @PlanningId
-    private final UUID planningId = UUID.randomUUID();
+    private Long planningId;
     @Transient
     private ShiftDate shiftDate;
 
@@ -31,7 +32,7 @@ public class EmployeeAssignment extends BaseEntity {
     private Long id;
     @OneToOne
     @NotNull
-    @PlanningVariable(valueRangeProviderRefs = {"employeeRange"})
+    @PlanningVariable(valueRangeProviderRefs = {"employeeRange"}, strengthWeightFactoryClass = EmployeeStrengthWeightFactory.class)
     private User employee;
     @ManyToOne(fetch = FetchType.LAZY)
     @NotNull
@@ -40,15 +41,28 @@ public class EmployeeAssignment extends BaseEntity {
     private Instant assignmentStart;
     @NotNull
     private Instant assignmentEnd;
+    // locked assignments were placed by a manager, the solver keeps them as they are
+    @PlanningPin
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean locked;
 
     public EmployeeAssignment(@NotNull User employee,
                               @NotNull ScheduleShift shift,
                               @NotNull Instant assignmentStart,
                               @NotNull Instant assignmentEnd) {
+        this(employee, shift, assignmentStart, assignmentEnd, false);
+    }
+
+    public EmployeeAssignment(@NotNull User employee,
+                              @NotNull ScheduleShift shift,
+                              @NotNull Instant assignmentStart,
+                              @NotNull Instant assignmentEnd,
+                              boolean locked) {
         this.employee = employee;
         this.shift = shift;
         this.assignmentStart = assignmentStart;
         this.assignmentEnd = assignmentEnd;
+        this.locked = locked;
         this.shiftDate = new ShiftDate(assignmentStart, assignmentEnd);
     }
 
@@ -60,6 +74,14 @@ public class EmployeeAssignment extends BaseEntity {
         this.shiftDate = new ShiftDate(assignmentStart, assignmentEnd);
     }
 
+    public Long getPlanningId() {
+        return planningId;
+    }
+
+    public void setPlanningId(Long planningId) {
+        this.planningId = planningId;
+    }
+
     public Long getId() {
         return id;
     }
@@ -100,20 +122,36 @@ public class EmployeeAssignment extends BaseEntity {
         this.assignmentEnd = assignmentEnd;
     }
 
+    public boolean isLocked() {
+        return locked;
+    }
+
+    public void setLocked(boolean locked) {
+        this.locked = locked;
+    }
+
     public EmployeeAssignmentResponse toResponse() {
-        return new EmployeeAssignmentResponse(id, assignmentStart, assignmentEnd, employee.getId(), shift.getId());
+        return new EmployeeAssignmentResponse(id, assignmentStart, assignmentEnd, employee.getId(), shift.getId(), locked);
     }
 
     public ShiftDate getShiftDate() {
         return shiftDate;
     }
 
-    public int getShiftDayNumber() {
-        return assignmentStart.atOffset(ZoneOffset.UTC).getDayOfMonth();
+    public long getDayIndex() {
+        return shiftDate.getDayIndex();
     }
 
     public long getHourDuration() {
-        return Duration.between(assignmentStart, assignmentEnd).toHours();
+        return shiftDate.getHourDuration();
+    }
+
+    public long getStartSeconds() {
+        return shiftDate.getStartSeconds();
+    }
+
+    public long getEndSeconds() {
+        return shiftDate.getEndSeconds();
     }
 
     public void setShiftDate(ShiftDate shiftDate) {
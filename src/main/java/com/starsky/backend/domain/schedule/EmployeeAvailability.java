@@ -3,6 +3,7 @@ package com.starsky.backend.domain.schedule;
 import com.starsky.backend.api.schedule.availability.EmployeeAvailabilityResponse;
 import com.starsky.backend.domain.BaseEntity;
 import com.starsky.backend.domain.user.User;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -11,6 +12,7 @@ import java.time.Instant;
 @Entity
 public class EmployeeAvailability extends BaseEntity {
     @Id
+    @PlanningId
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee-availability-id-generator")
     @SequenceGenerator(name = "employee-availability-id-generator", sequenceName = "employee_availability_sequence")
     private Long id;
@@ -106,6 +108,14 @@ public class EmployeeAvailability extends BaseEntity {
         return shiftDate;
     }
 
+    public long getStartSeconds() {
+        return shiftDate.getStartSeconds();
+    }
+
+    public long getEndSeconds() {
+        return shiftDate.getEndSeconds();
+    }
+
     public void setShiftDate(ShiftDate shiftDate) {
         this.shiftDate = shiftDate;
     }
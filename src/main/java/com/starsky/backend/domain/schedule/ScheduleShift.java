@@ -2,6 +2,7 @@ package com.starsky.backend.domain.schedule;
 
 import com.starsky.backend.api.schedule.shift.ScheduleShiftResponse;
 import com.starsky.backend.domain.BaseEntity;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -11,6 +12,7 @@ import java.util.List;
 @Entity
 public class ScheduleShift extends BaseEntity {
     @Id
+    @PlanningId
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule-shift-id-generator")
     @SequenceGenerator(name = "schedule-shift-id-generator", sequenceName = "schedule_shift_sequence")
     private Long id;
@@ -85,6 +87,10 @@ public class ScheduleShift extends BaseEntity {
         return employeeAvailabilities;
     }
 
+    public void setEmployeeAvailabilities(List<EmployeeAvailability> employeeAvailabilities) {
+        this.employeeAvailabilities = employeeAvailabilities;
+    }
+
     public List<EmployeeAssignment> getEmployeeAssignments() {
         return employeeAssignments;
     }
@@ -0,0 +1,154 @@
+package com.starsky.backend.domain.schedule;
+
+import com.starsky.backend.domain.BaseEntity;
+import com.starsky.backend.service.schedule.solve.SolveJobStatus;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A solve job in the shared job table, for solving schedules on whichever node has a free solver. Nodes claim scheduled jobs, keep
+ * the heartbeat of the jobs they solve up to date and write the result back once solving has finished.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "status, createdAt"))
+public class ScheduleSolveJob extends BaseEntity {
+    @Id
+    private UUID id;
+    @NotNull
+    private long scheduleId;
+    @NotNull
+    private long ownerId;
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private SolveJobStatus status;
+    @NotNull
+    private boolean warmStart;
+    private Long spentLimitMs;
+    private Long unimprovedLimitMs;
+    // node that claimed the job, null until it is claimed
+    private String workerId;
+    private Instant heartbeatAt;
+    @NotNull
+    private int attempts;
+    @NotNull
+    private boolean cancelRequested;
+    private String score;
+    @Column(length = 1000)
+    private String error;
+    // employee assignments of the solution as JSON, written once solving has finished
+    @Lob
+    private String assignments;
+
+    public ScheduleSolveJob(@NotNull UUID id,
+                            @NotNull long scheduleId,
+                            @NotNull long ownerId,
+                            @NotNull boolean warmStart,
+                            Long spentLimitMs,
+                            Long unimprovedLimitMs) {
+        this.id = id;
+        this.scheduleId = scheduleId;
+        this.ownerId = ownerId;
+        this.warmStart = warmStart;
+        this.spentLimitMs = spentLimitMs;
+        this.unimprovedLimitMs = unimprovedLimitMs;
+        this.status = SolveJobStatus.SCHEDULED;
+    }
+
+    public ScheduleSolveJob() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public long getScheduleId() {
+        return scheduleId;
+    }
+
+    public long getOwnerId() {
+        return ownerId;
+    }
+
+    public SolveJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SolveJobStatus status) {
+        this.status = status;
+    }
+
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    public Long getSpentLimitMs() {
+        return spentLimitMs;
+    }
+
+    public Long getUnimprovedLimitMs() {
+        return unimprovedLimitMs;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+
+    public Instant getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(Instant heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void setCancelRequested(boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    public String getScore() {
+        return score;
+    }
+
+    public void setScore(String score) {
+        this.score = score;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(String assignments) {
+        this.assignments = assignments;
+    }
+
+    public boolean isFinished() {
+        return status == SolveJobStatus.COMPLETED || status == SolveJobStatus.CANCELLED || status == SolveJobStatus.FAILED;
+    }
+}
@@ -2,13 +2,28 @@ package com.starsky.backend.domain.schedule;
 
 import java.time.Instant;
 
+/**
+ * Time interval of a shift, assignment or availability as the solver sees it. Everything the constraints need is computed once
+ * when the interval is created, so score calculation only compares primitives and does not allocate any time objects.
+ */
 public class ShiftDate {
-    Instant start;
-    Instant end;
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final long SECONDS_PER_HOUR = 60 * 60;
+
+    private final Instant start;
+    private final Instant end;
+    private final long startSeconds;
+    private final long endSeconds;
+    private final long dayIndex;
+    private final long hourDuration;
 
     public ShiftDate(Instant start, Instant end) {
         this.start = start;
         this.end = end;
+        this.startSeconds = start.getEpochSecond();
+        this.endSeconds = end.getEpochSecond();
+        this.dayIndex = Math.floorDiv(startSeconds, SECONDS_PER_DAY); // days since epoch (UTC)
+        this.hourDuration = (endSeconds - startSeconds) / SECONDS_PER_HOUR;
     }
 
     public Instant getStart() {
@@ -19,20 +34,27 @@ public class ShiftDate {
         return end;
     }
 
+    public long getStartSeconds() {
+        return startSeconds;
+    }
+
+    public long getEndSeconds() {
+        return endSeconds;
+    }
+
+    public long getDayIndex() {
+        return dayIndex;
+    }
+
+    public long getHourDuration() {
+        return hourDuration;
+    }
 
     /**
      * Checks if the given shift is the subset of the current shift - if it fits into the time interval of the current shift.
      * e.g. if current shift is from 10:00-16:00 and the given shift is from 12:00-14:00 then that shift is a subset and will return false.
      */
     public boolean isSubsetOfShift(ShiftDate shift) {
-        return isAfterOrEquals(shift.getStart(), start) && isBeforeOrEquals(shift.getEnd(), end);
-    }
-
-    private boolean isBeforeOrEquals(Instant date, Instant compareTo) {
-        return date.equals(compareTo) || date.isBefore(compareTo);
-    }
-
-    private boolean isAfterOrEquals(Instant date, Instant compareTo) {
-        return date.equals(compareTo) || date.isAfter(compareTo);
+        return shift.startSeconds >= startSeconds && shift.endSeconds <= endSeconds;
     }
 }
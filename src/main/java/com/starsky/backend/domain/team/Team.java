@@ -62,6 +62,10 @@ public class Team extends BaseEntity {
         return new TeamResponse(id, name, owner.getName());
     }
 
+    public List<Schedule> getSchedules() {
+        return schedules;
+    }
+
     public List<TeamMember> getTeamMembers() {
         return teamMembers;
     }
@@ -2,6 +2,7 @@ package com.starsky.backend.domain.user;
 
 import com.starsky.backend.api.user.UserResponse;
 import com.starsky.backend.domain.BaseEntity;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -10,6 +11,7 @@ import javax.validation.constraints.NotNull;
 public class User extends BaseEntity {
 
     @Id
+    @PlanningId
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user-id-generator")
     @SequenceGenerator(name = "user-id-generator", sequenceName = "user_sequence")
     private long id;
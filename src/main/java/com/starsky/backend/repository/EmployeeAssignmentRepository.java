@@ -3,6 +3,9 @@ package com.starsky.backend.repository;
 import com.starsky.backend.domain.schedule.EmployeeAssignment;
 import com.starsky.backend.domain.schedule.Schedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
 import java.util.List;
@@ -14,5 +17,8 @@ public interface EmployeeAssignmentRepository extends JpaRepository<EmployeeAssi
 
     Optional<EmployeeAssignment> findByIdAndShiftSchedule(long assignmentId, Schedule schedule);
 
-    void deleteAllByShiftSchedule(Schedule schedule);
+    // a single bulk delete, instead of loading and deleting every assignment one by one
+    @Modifying(flushAutomatically = true)
+    @Query("delete from EmployeeAssignment a where a.shift.id in (select s.id from ScheduleShift s where s.schedule = :schedule)")
+    void deleteAllByShiftSchedule(@Param("schedule") Schedule schedule);
 }
@@ -16,6 +16,18 @@ import java.util.Optional;
 public interface EmployeeAvailabilityRepository extends JpaRepository<EmployeeAvailability, Long> {
     Optional<EmployeeAvailability> getEmployeeAvailabilityByIdAndShiftScheduleTeamOwner(long availabilityId, User owner);
 
+    Optional<EmployeeAvailability> getEmployeeAvailabilityByIdAndShiftScheduleTeamOwnerId(long availabilityId, long ownerId);
+
+    boolean existsByIdAndShiftScheduleTeamOwnerId(long availabilityId, long ownerId);
+
+    /**
+     * Finds the availability only if the employee is a member of its schedule's team, so that reading it as an employee takes a single query.
+     */
+    @Query("select ea from EmployeeAvailability ea where ea.id = :id and ea.shift.schedule.team.owner.id = :owner_id " +
+            "and exists (select m.id from TeamMember m where m.team = ea.shift.schedule.team and m.member.id = :member_id and m.member.enabled = true)")
+    Optional<EmployeeAvailability> getEmployeeAvailabilityByIdAndShiftScheduleTeamMemberId(@Param("id") long availabilityId,
+                                                                                         @Param("owner_id") long ownerId,
+                                                                                         @Param("member_id") long memberId);
 
     @Query(value = "select ea.* from {h-schema}employee_availability ea " +
             "join {h-schema}schedule_shift ss on ss.id = ea.shift_id " +
@@ -1,8 +1,9 @@
 package com.starsky.backend.repository;
 
 import com.starsky.backend.domain.schedule.Schedule;
-import com.starsky.backend.domain.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
 import java.util.List;
@@ -10,9 +11,18 @@ import java.util.Optional;
 
 @RepositoryRestResource(exported = false)
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
-    List<Schedule> findAllByTeamOwnerAndTeamId(User owner, long teamId);
+    List<Schedule> findAllByTeamOwnerId(long ownerId);
 
-    List<Schedule> findAllByTeamOwner(User owner);
+    List<Schedule> findAllByTeamOwnerIdAndTeamId(long ownerId, long teamId);
 
-    Optional<Schedule> findByIdAndTeamOwner(long id, User owner);
+    Optional<Schedule> findByIdAndTeamOwnerId(long id, long ownerId);
+
+    boolean existsByIdAndTeamOwnerId(long id, long ownerId);
+
+    /**
+     * Finds the schedule only if the employee is a member of its team, so that reading it as an employee takes a single query.
+     */
+    @Query("select s from Schedule s where s.id = :id and s.team.owner.id = :owner_id " +
+            "and exists (select m.id from TeamMember m where m.team = s.team and m.member.id = :member_id and m.member.enabled = true)")
+    Optional<Schedule> findByIdAndTeamMemberId(@Param("id") long id, @Param("owner_id") long ownerId, @Param("member_id") long memberId);
 }
@@ -19,6 +19,17 @@ public interface ScheduleShiftRepository extends JpaRepository<ScheduleShift, Lo
 
     Optional<ScheduleShift> getByIdAndScheduleTeamOwner(long shiftId, User owner);
 
+    Optional<ScheduleShift> getByIdAndScheduleTeamOwnerId(long shiftId, long ownerId);
+
+    boolean existsByIdAndScheduleTeamOwnerId(long shiftId, long ownerId);
+
+    /**
+     * Finds the shift only if the employee is a member of its schedule's team, so that reading it as an employee takes a single query.
+     */
+    @Query("select ss from ScheduleShift ss where ss.id = :id and ss.schedule.team.owner.id = :owner_id " +
+            "and exists (select m.id from TeamMember m where m.team = ss.schedule.team and m.member.id = :member_id and m.member.enabled = true)")
+    Optional<ScheduleShift> getByIdAndScheduleTeamMemberId(@Param("id") long shiftId, @Param("owner_id") long ownerId, @Param("member_id") long memberId);
+
     boolean existsByIdInAndScheduleTeamOwner(Collection<Long> shiftIds, User owner);
 
     void deleteByScheduleIdAndScheduleTeamOwner(long scheduleId, User owner);
@@ -0,0 +1,85 @@
+package com.starsky.backend.repository;
+
+import com.starsky.backend.domain.schedule.ScheduleSolveJob;
+import com.starsky.backend.service.schedule.solve.SolveJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RepositoryRestResource(exported = false)
+public interface ScheduleSolveJobRepository extends JpaRepository<ScheduleSolveJob, UUID> {
+    Optional<ScheduleSolveJob> findByIdAndScheduleIdAndOwnerId(UUID id, long scheduleId, long ownerId);
+
+    List<ScheduleSolveJob> findAllByWorkerIdAndStatusAndCancelRequested(String workerId, SolveJobStatus status, boolean cancelRequested);
+
+    /**
+     * Locks the oldest scheduled jobs - jobs that another node has already locked are skipped, so nodes never wait for each other
+     * and never claim the same job. Must be called in a transaction, the locks are held until it ends.
+     */
+    @Query(value = "select j.* from {h-schema}schedule_solve_job j " +
+            "where j.status = 'SCHEDULED' " +
+            "order by j.created_at " +
+            "limit :limit " +
+            "for update skip locked",
+            nativeQuery = true)
+    List<ScheduleSolveJob> lockScheduled(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update ScheduleSolveJob j set j.heartbeatAt = :now where j.workerId = :worker_id and j.id in :ids and j.status = :status")
+    int updateHeartbeat(@Param("worker_id") String workerId,
+                        @Param("ids") Collection<UUID> ids,
+                        @Param("status") SolveJobStatus status,
+                        @Param("now") Instant now);
+
+    /**
+     * Writes the final state of a job, unless another worker has claimed the job since - the job was requeued because this worker looked dead.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ScheduleSolveJob j set j.status = :status, j.score = :score, j.error = :error, j.assignments = :assignments " +
+            "where j.id = :id and j.workerId = :worker_id")
+    int writeResult(@Param("id") UUID id,
+                    @Param("worker_id") String workerId,
+                    @Param("status") SolveJobStatus status,
+                    @Param("score") String score,
+                    @Param("error") String error,
+                    @Param("assignments") String assignments);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ScheduleSolveJob j set j.status = :cancelled where j.id = :id and j.status = :scheduled")
+    int cancelScheduled(@Param("id") UUID id, @Param("cancelled") SolveJobStatus cancelled, @Param("scheduled") SolveJobStatus scheduled);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ScheduleSolveJob j set j.cancelRequested = true where j.id = :id")
+    int requestCancel(@Param("id") UUID id);
+
+    /**
+     * Hands jobs whose node stopped sending heartbeats back to the queue.
+     */
+    @Modifying
+    @Query("update ScheduleSolveJob j set j.status = :scheduled, j.workerId = null, j.heartbeatAt = null " +
+            "where j.status = :solving and j.heartbeatAt < :stale_before and j.attempts < :max_attempts")
+    int requeueStale(@Param("stale_before") Instant staleBefore,
+                     @Param("max_attempts") int maxAttempts,
+                     @Param("scheduled") SolveJobStatus scheduled,
+                     @Param("solving") SolveJobStatus solving);
+
+    /**
+     * Fails jobs whose node stopped sending heartbeats too many times - the job itself is most likely what brings the nodes down.
+     */
+    @Modifying
+    @Query("update ScheduleSolveJob j set j.status = :failed, j.error = :error " +
+            "where j.status = :solving and j.heartbeatAt < :stale_before and j.attempts >= :max_attempts")
+    int failStale(@Param("stale_before") Instant staleBefore,
+                  @Param("max_attempts") int maxAttempts,
+                  @Param("error") String error,
+                  @Param("failed") SolveJobStatus failed,
+                  @Param("solving") SolveJobStatus solving);
+}
@@ -4,13 +4,20 @@ import com.starsky.backend.domain.team.Team;
 import com.starsky.backend.domain.team.TeamMember;
 import com.starsky.backend.domain.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
 import java.util.List;
+import java.util.Set;
 
 @RepositoryRestResource(exported = false)
 public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
-    List<TeamMember> getAllByMember(User user);
+    List<TeamMember> getAllByMemberId(long memberId);
+
+    // deleted (disabled) employees keep their team members, but are no longer members of any team
+    @Query("select m.team.id from TeamMember m where m.member.id = :member_id and m.member.enabled = true")
+    Set<Long> getTeamIdsByMemberId(@Param("member_id") long memberId);
 
     List<TeamMember> getAllByTeam(Team team);
 
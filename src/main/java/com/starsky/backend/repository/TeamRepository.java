@@ -10,7 +10,7 @@ import java.util.Optional;
 
 @RepositoryRestResource(exported = false)
 public interface TeamRepository extends JpaRepository<Team, Long> {
-    List<Team> getAllByOwner(User owner);
+    List<Team> getAllByOwnerId(long ownerId);
 
     Optional<Team> findByIdAndOwnerId(long teamId, long ownerId);
 
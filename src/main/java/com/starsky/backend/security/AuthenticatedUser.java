@@ -0,0 +1,51 @@
+package com.starsky.backend.security;
+
+import com.starsky.backend.domain.user.Role;
+import com.starsky.backend.domain.user.User;
+
+/**
+ * The authenticated user as described by the claims of their JWT. Endpoints that only need the ids of the user and their manager
+ * can use it instead of loading the whole {@link User} on every request.
+ */
+public class AuthenticatedUser {
+    private final long id;
+    private final String email;
+    private final Role role;
+    // manager of an employee, null for managers
+    private final Long managerId;
+
+    public AuthenticatedUser(long id, String email, Role role, Long managerId) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.managerId = managerId;
+    }
+
+    public static AuthenticatedUser of(User user) {
+        var managerId = user.getParentUser() == null ? null : user.getParentUser().getId();
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), managerId);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public Long getManagerId() {
+        return managerId;
+    }
+
+    /**
+     * @return id of the manager that owns the teams and schedules of the user - their own id for managers
+     */
+    public long getOwnerId() {
+        return managerId == null ? id : managerId;
+    }
+}
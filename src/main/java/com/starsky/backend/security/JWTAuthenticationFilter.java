@@ -12,7 +12,6 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import javax.servlet.FilterChain;
@@ -23,8 +22,6 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 
-import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
-
 public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
     private final Logger logger = LoggerFactory.getLogger(JWTAuthenticationFilter.class);
@@ -55,11 +52,18 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     protected void successfulAuthentication(HttpServletRequest req, HttpServletResponse res, FilterChain chain, Authentication auth) throws IOException {
         var expiresOn = Instant.now().plus(jwtConfig.getExpirationTime());
         var expiresIn = jwtConfig.getExpirationTime().getSeconds();
-        String token = JWT.create()
-                .withSubject(((User) auth.getPrincipal()).getUsername())
-                .withClaim("role", auth.getAuthorities().stream().findFirst().get().getAuthority())
+        var user = ((JwtUserDetails) auth.getPrincipal()).getAuthenticatedUser();
+        // ids are carried in the token, so that authenticated requests do not have to load the user
+        var builder = JWT.create()
+                .withSubject(user.getEmail())
+                .withClaim(JwtConfig.ROLE_CLAIM, auth.getAuthorities().stream().findFirst().get().getAuthority())
+                .withClaim(JwtConfig.USER_ID_CLAIM, user.getId());
+        if (user.getManagerId() != null) {
+            builder.withClaim(JwtConfig.MANAGER_ID_CLAIM, user.getManagerId());
+        }
+        String token = builder
                 .withExpiresAt(Date.from(expiresOn))
-                .sign(HMAC512(jwtConfig.getSecret().getBytes()));
+                .sign(jwtConfig.getAlgorithm());
         res.setContentType("application/json");
         res.getWriter().write(mapper.writeValueAsString(new TokenResponse(token, jwtConfig.getTokenPrefix().trim(), expiresOn, expiresIn)));
         res.getWriter().flush();
@@ -1,8 +1,9 @@
 package com.starsky.backend.security;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.starsky.backend.cache.ExpiringCache;
 import com.starsky.backend.config.JwtConfig;
+import com.starsky.backend.domain.user.Role;
+import com.starsky.backend.service.user.UserService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,15 +15,25 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.List;
 
 public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
 
     private final JwtConfig jwtConfig;
+    private final UserService userService;
+    // verified tokens by their SHA-256 hash, entries expire together with their token at the latest
+    private final ExpiringCache<String, UsernamePasswordAuthenticationToken> authentications;
 
-    public JWTAuthorizationFilter(AuthenticationManager authManager, JwtConfig jwtConfig) {
+    public JWTAuthorizationFilter(AuthenticationManager authManager, JwtConfig jwtConfig, UserService userService, int cacheMaxSize, Duration cacheTimeToLive) {
         super(authManager);
         this.jwtConfig = jwtConfig;
+        this.userService = userService;
+        this.authentications = new ExpiringCache<>(cacheMaxSize, cacheTimeToLive);
     }
 
     @Override
@@ -45,18 +56,60 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
     private UsernamePasswordAuthenticationToken getAuthentication(HttpServletRequest request) {
         String token = request.getHeader(jwtConfig.getAuthorizationHeader());
         if (token != null) {
+            token = token.replace(jwtConfig.getTokenPrefix(), "");
+            var tokenHash = hash(token);
+            var cached = authentications.get(tokenHash);
+            if (cached.isPresent()) {
+                return rejectDisabled(cached.get());
+            }
+
             // parse the token.
-            var jwt = JWT.require(Algorithm.HMAC512(jwtConfig.getSecret().getBytes()))
-                    .build()
-                    .verify(token.replace(jwtConfig.getTokenPrefix(), ""));
+            var jwt = jwtConfig.getVerifier().verify(token);
             String user = jwt.getSubject();
-            var roles = List.of(new SimpleGrantedAuthority(jwt.getClaim("role").asString()));
+            var role = jwt.getClaim(JwtConfig.ROLE_CLAIM).asString();
+            var roles = List.of(new SimpleGrantedAuthority(role));
 
-            if (user != null) {
-                return new UsernamePasswordAuthenticationToken(user, null, roles);
+            if (user == null) {
+                return null;
             }
-            return null;
+            UsernamePasswordAuthenticationToken authentication;
+            var userId = jwt.getClaim(JwtConfig.USER_ID_CLAIM);
+            if (userId.isNull()) {
+                // tokens issued before ids were added to them only carry the email
+                authentication = new UsernamePasswordAuthenticationToken(user, null, roles);
+            } else {
+                var managerId = jwt.getClaim(JwtConfig.MANAGER_ID_CLAIM);
+                var principal = new AuthenticatedUser(userId.asLong(), user, Role.valueOf(role.substring("ROLE_".length())),
+                        managerId.isNull() ? null : managerId.asLong());
+                authentication = new UsernamePasswordAuthenticationToken(principal, null, roles);
+            }
+            if (jwt.getExpiresAt() != null) {
+                authentications.put(tokenHash, authentication, jwt.getExpiresAt().toInstant());
+            }
+            return rejectDisabled(authentication);
         }
         return null;
     }
+
+    /**
+     * Tokens stay valid for a day, users that were disabled (deleted employees) since their token was issued are not authenticated anymore.
+     * Tokens without ids are checked when their user is loaded by email.
+     */
+    private UsernamePasswordAuthenticationToken rejectDisabled(UsernamePasswordAuthenticationToken authentication) {
+        var principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser && !userService.isEnabled(((AuthenticatedUser) principal).getId())) {
+            return null;
+        }
+        return authentication;
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return "%064x".formatted(new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.starsky.backend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * User details of a login, carrying the authenticated user so that their ids can be written into the JWT.
+ */
+public class JwtUserDetails extends User {
+    private final AuthenticatedUser authenticatedUser;
+
+    public JwtUserDetails(AuthenticatedUser authenticatedUser, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(authenticatedUser.getEmail(), password, authorities);
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    public AuthenticatedUser getAuthenticatedUser() {
+        return authenticatedUser;
+    }
+}
@@ -3,6 +3,7 @@ package com.starsky.backend.security;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.starsky.backend.config.JwtConfig;
 import com.starsky.backend.service.authentication.UserDetailsServiceImpl;
+import com.starsky.backend.service.user.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -25,18 +26,26 @@ import java.util.Collections;
 @EnableWebSecurity
 public class WebSecurity extends WebSecurityConfigurerAdapter {
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserService userService;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
     private final JwtConfig jwtConfig;
     private final ObjectMapper mapper;
     private final String frontendOrigin;
+    private final int tokenCacheMaxSize;
+    private final Duration tokenCacheTimeToLive;
 
     @Autowired
-    public WebSecurity(UserDetailsServiceImpl userDetailsService, BCryptPasswordEncoder bCryptPasswordEncoder, JwtConfig jwtConfig, ObjectMapper mapper,
-                       @Value("${starsky.frontend.register-url}") String frontendRegisterUrl) throws MalformedURLException {
+    public WebSecurity(UserDetailsServiceImpl userDetailsService, UserService userService, BCryptPasswordEncoder bCryptPasswordEncoder, JwtConfig jwtConfig, ObjectMapper mapper,
+                       @Value("${starsky.frontend.register-url}") String frontendRegisterUrl,
+                       @Value("${starsky.security.token-cache.max-size:10000}") int tokenCacheMaxSize,
+                       @Value("${starsky.security.token-cache.time-to-live:5m}") Duration tokenCacheTimeToLive) throws MalformedURLException {
         this.userDetailsService = userDetailsService;
+        this.userService = userService;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
         this.jwtConfig = jwtConfig;
         this.mapper = mapper;
+        this.tokenCacheMaxSize = tokenCacheMaxSize;
+        this.tokenCacheTimeToLive = tokenCacheTimeToLive;
         var url = new URL(frontendRegisterUrl);
         this.frontendOrigin = url.getProtocol() + "://" + url.getAuthority();
     }
@@ -48,6 +57,11 @@ public class WebSecurity extends WebSecurityConfigurerAdapter {
                 /* PERMIT ALL PUBLIC ACCESS */
                 .antMatchers(HttpMethod.POST, jwtConfig.getRegisterUrl(), "/login").permitAll()
                 .antMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/version").permitAll()
+                .antMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+
+                /* ADMIN ONLY ROUTES */
+                // metrics show the solver queues, cache sizes and JVM internals
+                .antMatchers("/actuator/**").hasRole("ADMIN")
 
                 /* MANAGER ONLY ROUTES */
                 .antMatchers(HttpMethod.POST,
@@ -58,7 +72,9 @@ public class WebSecurity extends WebSecurityConfigurerAdapter {
                         "/user/schedules/{schedule_id}/shifts",
                         "/user/employees",
                         "/user/shifts/{shift_id}/availabilities",
-                        "/user/schedules/{schedule_id}/shifts/{shift_id}/employees/{employee_id}/assignments"
+                        "/user/schedules/{schedule_id}/shifts/{shift_id}/employees/{employee_id}/assignments",
+                        "/user/schedules/{schedule_id}/solve",
+                        "/user/schedules/{schedule_id}/solve/{job_id}/apply"
                 ).hasRole("MANAGER")
                 .antMatchers(HttpMethod.PATCH,
                         "/user/schedules/{schedule_id}",
@@ -76,12 +92,16 @@ public class WebSecurity extends WebSecurityConfigurerAdapter {
                         "/user/teams/{team_id}",
                         "/user/employees/{employee_id}",
                         "/user/teams/{team_id}/members/{user_id}",
-                        "/user/schedules/{schedule_id}/assignments/{assignment_id}"
+                        "/user/schedules/{schedule_id}/assignments/{assignment_id}",
+                        "/user/schedules/{schedule_id}/solve/{job_id}"
                 ).hasRole("MANAGER")
                 .antMatchers(HttpMethod.GET,
                         "/user/invites",
                         "/user/employees",
-                        "/user/schedules/{schedule_id}/solve"
+                        "/user/schedules/{schedule_id}/solve",
+                        "/user/schedules/{schedule_id}/solve/{job_id}",
+                        "/user/schedules/{schedule_id}/solve/{job_id}/events",
+                        "/user/schedules/{schedule_id}/score"
                 ).hasRole("MANAGER")
                 .antMatchers(HttpMethod.PUT,
                         "/user/schedules/{schedule_id}/assignments",
@@ -94,7 +114,7 @@ public class WebSecurity extends WebSecurityConfigurerAdapter {
                 .anyRequest().authenticated()
                 .and()
                 .addFilter(new JWTAuthenticationFilter(authenticationManager(), jwtConfig, mapper))
-                .addFilter(new JWTAuthorizationFilter(authenticationManager(), jwtConfig))
+                .addFilter(new JWTAuthorizationFilter(authenticationManager(), jwtConfig, userService, tokenCacheMaxSize, tokenCacheTimeToLive))
                 // this disables session creation on Spring Security
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
     }
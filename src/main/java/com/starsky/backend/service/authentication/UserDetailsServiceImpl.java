@@ -1,11 +1,12 @@
 package com.starsky.backend.service.authentication;
 
+import com.starsky.backend.security.AuthenticatedUser;
+import com.starsky.backend.security.JwtUserDetails;
 import com.starsky.backend.service.user.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -27,7 +28,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         try {
             var user = userService.getUserByEmailAndManuallyAdded(email, false);
             List<GrantedAuthority> roles = List.of(new SimpleGrantedAuthority("ROLE_%s".formatted(user.getRole().name())));
-            return new User(user.getEmail(), user.getPassword(), roles);
+            return new JwtUserDetails(AuthenticatedUser.of(user), user.getPassword(), roles);
         } catch (ResourceNotFoundException ex) {
             throw new UsernameNotFoundException(email);
         }
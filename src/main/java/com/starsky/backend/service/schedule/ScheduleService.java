@@ -6,6 +6,7 @@ import com.starsky.backend.api.schedule.CreateScheduleRequest;
 import com.starsky.backend.api.schedule.UpdateScheduleRequest;
 import com.starsky.backend.domain.schedule.Schedule;
 import com.starsky.backend.domain.user.User;
+import com.starsky.backend.security.AuthenticatedUser;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 
 import java.util.List;
@@ -13,10 +14,16 @@ import java.util.List;
 public interface ScheduleService {
     List<Schedule> getSchedules(User user);
 
+    List<Schedule> getSchedules(AuthenticatedUser user);
+
     Schedule getSchedule(long scheduleId, User user) throws ResourceNotFoundException, ForbiddenException;
 
+    Schedule getSchedule(long scheduleId, AuthenticatedUser user) throws ResourceNotFoundException, ForbiddenException;
+
     List<Schedule> getSchedulesByTeam(User user, long teamId);
 
+    List<Schedule> getSchedulesByTeam(AuthenticatedUser user, long teamId);
+
     Schedule createSchedule(CreateScheduleRequest request, long teamId, User user) throws DateRangeException, ResourceNotFoundException;
 
     Schedule updateSchedule(UpdateScheduleRequest request, long scheduleId, User owner) throws DateRangeException, ResourceNotFoundException, ForbiddenException;
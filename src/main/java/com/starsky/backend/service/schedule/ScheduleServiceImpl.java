@@ -12,6 +12,7 @@ import com.starsky.backend.domain.user.Role;
 import com.starsky.backend.domain.user.User;
 import com.starsky.backend.repository.EmployeeAssignmentRepository;
 import com.starsky.backend.repository.ScheduleRepository;
+import com.starsky.backend.security.AuthenticatedUser;
 import com.starsky.backend.service.team.TeamService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,16 +57,15 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     @Override
     public List<Schedule> getSchedules(User user) {
-        var manager = user;
-        if (user.getRole() == Role.EMPLOYEE) {
-            manager = user.getParentUser();
-        }
+        return getSchedules(AuthenticatedUser.of(user));
+    }
 
-        var schedules = scheduleRepository.findAllByTeamOwner(manager);
+    @Override
+    public List<Schedule> getSchedules(AuthenticatedUser user) {
+        var schedules = scheduleRepository.findAllByTeamOwnerId(user.getOwnerId());
 
         if (user.getRole() == Role.EMPLOYEE) {
-            var teams = teamService.getTeams(user);
-            schedules.removeIf(schedule -> teams.stream().noneMatch(team -> team.getId() == schedule.getTeam().getId()));
+            schedules.removeIf(schedule -> !teamService.isTeamMember(user.getId(), schedule.getTeam().getId()));
         }
 
         return schedules;
@@ -73,33 +73,44 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     @Override
     public Schedule getSchedule(long scheduleId, User user) throws ResourceNotFoundException, ForbiddenException {
-        var manager = user;
-        if (user.getRole() == Role.EMPLOYEE) {
-            manager = user.getParentUser();
+        return getSchedule(scheduleId, AuthenticatedUser.of(user));
+    }
+
+    @Override
+    public Schedule getSchedule(long scheduleId, AuthenticatedUser user) throws ResourceNotFoundException, ForbiddenException {
+        if (user.getRole() != Role.EMPLOYEE) {
+            return scheduleRepository.findByIdAndTeamOwnerId(scheduleId, user.getOwnerId()).orElseThrow(() -> getScheduleDoesNotExistException(scheduleId));
         }
-        var schedule = scheduleRepository.findByIdAndTeamOwner(scheduleId, manager).orElseThrow(() -> {
-            var error = "Schedule (id=%d) does not exist.".formatted(scheduleId);
-            this.logger.warn(error);
-            throw new ResourceNotFoundException(error);
-        });
 
-        if (user.getRole() == Role.EMPLOYEE) {
-            var teams = teamService.getTeams(user);
-            if (teams.stream().noneMatch(team -> team.getId() == schedule.getTeam().getId())) {
-                var message =
-                        "Authenticated user (id=%d) does not have necessary permissions to access this schedule - does not belong to schedule's team."
-                                .formatted(user.getId());
-                this.logger.warn(message);
-                throw new ForbiddenException(message);
-            }
+        var schedule = scheduleRepository.findByIdAndTeamMemberId(scheduleId, user.getOwnerId(), user.getId());
+        if (schedule.isPresent()) {
+            return schedule.get();
         }
+        // only a schedule that cannot be read takes a second query, to tell a schedule of another team apart from one that does not exist
+        if (!scheduleRepository.existsByIdAndTeamOwnerId(scheduleId, user.getOwnerId())) {
+            throw getScheduleDoesNotExistException(scheduleId);
+        }
+        var message =
+                "Authenticated user (id=%d) does not have necessary permissions to access this schedule - does not belong to schedule's team."
+                        .formatted(user.getId());
+        this.logger.warn(message);
+        throw new ForbiddenException(message);
+    }
 
-        return schedule;
+    private ResourceNotFoundException getScheduleDoesNotExistException(long scheduleId) {
+        var error = "Schedule (id=%d) does not exist.".formatted(scheduleId);
+        this.logger.warn(error);
+        return new ResourceNotFoundException(error);
     }
 
     @Override
     public List<Schedule> getSchedulesByTeam(User user, long teamId) {
-        return scheduleRepository.findAllByTeamOwnerAndTeamId(user, teamId);
+        return getSchedulesByTeam(AuthenticatedUser.of(user), teamId);
+    }
+
+    @Override
+    public List<Schedule> getSchedulesByTeam(AuthenticatedUser user, long teamId) {
+        return scheduleRepository.findAllByTeamOwnerIdAndTeamId(user.getId(), teamId);
     }
 
     @Override
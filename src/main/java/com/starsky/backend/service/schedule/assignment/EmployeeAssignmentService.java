@@ -21,4 +21,9 @@ public interface EmployeeAssignmentService {
     EmployeeAssignment create(long scheduleId, long shiftId, long employeeId, User owner, CreateEmployeeAssignmentRequest request) throws ForbiddenException, ResourceNotFoundException, DateRangeException;
 
     void putAll(List<PutEmployeeAssignmentRequest> requests, long scheduleId, User owner) throws ForbiddenException, DateRangeException, ResourceNotFoundException;
+
+    /**
+     * Replaces all assignments of the schedule with the given (solved) assignments in a single transaction. Unassigned slots are skipped.
+     */
+    void replaceAll(List<EmployeeAssignment> solvedAssignments, long scheduleId, User owner) throws ForbiddenException, DateRangeException, ResourceNotFoundException;
 }
@@ -6,7 +6,9 @@ import com.starsky.backend.api.schedule.assignment.CreateEmployeeAssignmentReque
 import com.starsky.backend.api.schedule.assignment.PutEmployeeAssignmentRequest;
 import com.starsky.backend.api.schedule.assignment.UpdateEmployeeAssignmentRequest;
 import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.Schedule;
 import com.starsky.backend.domain.schedule.ScheduleShift;
+import com.starsky.backend.domain.team.TeamMember;
 import com.starsky.backend.domain.user.User;
 import com.starsky.backend.repository.EmployeeAssignmentRepository;
 import com.starsky.backend.service.schedule.DateRangeValidator;
@@ -23,6 +25,9 @@ import javax.transaction.Transactional;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService {
@@ -67,6 +72,10 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
             assignment.setAssignmentEnd(request.getAssignmentEnd().get());
         }
 
+        if (request.getLocked().isPresent()) {
+            assignment.setLocked(request.getLocked().get());
+        }
+
         validateAssignmentDateRange(assignment.getAssignmentStart(), assignment.getAssignmentEnd(), assignment.getShift(), assignment.getEmployee().getId());
 
         return employeeAssignmentRepository.save(assignment);
@@ -91,7 +100,7 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
 
         validateAssignmentDateRange(request.getAssignmentStart(), request.getAssignmentEnd(), shift, employeeId);
 
-        var assignment = new EmployeeAssignment(employee, shift, request.getAssignmentStart(), request.getAssignmentEnd());
+        var assignment = new EmployeeAssignment(employee, shift, request.getAssignmentStart(), request.getAssignmentEnd(), request.isLocked());
         return employeeAssignmentRepository.save(assignment);
     }
 
@@ -100,24 +109,18 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
     public void putAll(List<PutEmployeeAssignmentRequest> requests, long scheduleId, User owner) throws ForbiddenException, DateRangeException {
         // 1. validate schedule, shifts, user permissions, time intervals (they dont overlap) before saving anything
         var schedule = scheduleService.getSchedule(scheduleId, owner);
-        var employees = schedule.getTeam().getTeamMembers();
-        var shifts = schedule.getShifts();
+        var employeesById = getEmployeesById(schedule);
+        var shiftsById = getShiftsById(schedule);
 
-        var assignments = new ArrayList<EmployeeAssignment>();
+        var assignments = new ArrayList<EmployeeAssignment>(requests.size());
 
         for (var request : requests) {
-            var employee = employees.stream().filter(teamMember -> teamMember.getMember().getId() == request.getEmployeeId()).findFirst().orElseThrow(() -> {
-                var error = "Employee (user id=%d) does not exist.".formatted(request.getEmployeeId());
-                return logAndGetResourceNotFound(error);
-            });
-            var shift = shifts.stream().filter(s -> s.getId() == request.getShiftId()).findFirst().orElseThrow(() -> {
-                var error = "Shift (id=%d) does not exist.".formatted(request.getShiftId());
-                return logAndGetResourceNotFound(error);
-            });
+            var employee = getEmployee(employeesById, request.getEmployeeId());
+            var shift = getShift(shiftsById, request.getShiftId());
 
             validateAssignmentDateRange(request.getAssignmentStart(), request.getAssignmentEnd(), shift, request.getEmployeeId());
 
-            assignments.add(new EmployeeAssignment(employee.getMember(), shift, request.getAssignmentStart(), request.getAssignmentEnd()));
+            assignments.add(new EmployeeAssignment(employee, shift, request.getAssignmentStart(), request.getAssignmentEnd(), request.isLocked()));
         }
 
 
@@ -135,6 +138,57 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
         employeeAssignmentRepository.saveAll(assignments);
     }
 
+    @Override
+    @Transactional
+    public void replaceAll(List<EmployeeAssignment> solvedAssignments, long scheduleId, User owner) throws ForbiddenException, DateRangeException, ResourceNotFoundException {
+        var schedule = scheduleService.getSchedule(scheduleId, owner);
+        var employeesById = getEmployeesById(schedule);
+        var shiftsById = getShiftsById(schedule);
+
+        // solved assignments reference entities of the request that started solving, they are re-attached to the entities of this transaction
+        var assignments = new ArrayList<EmployeeAssignment>(solvedAssignments.size());
+        for (var solved : solvedAssignments) {
+            if (solved.getEmployee() == null) {
+                continue;
+            }
+            var employee = getEmployee(employeesById, solved.getEmployee().getId());
+            var shift = getShift(shiftsById, solved.getShift().getId());
+
+            validateAssignmentDateRange(solved.getAssignmentStart(), solved.getAssignmentEnd(), shift, employee.getId());
+
+            assignments.add(new EmployeeAssignment(employee, shift, solved.getAssignmentStart(), solved.getAssignmentEnd(), solved.isLocked()));
+        }
+
+        employeeAssignmentRepository.deleteAllByShiftSchedule(schedule);
+        employeeAssignmentRepository.saveAll(assignments);
+    }
+
+    private Map<Long, User> getEmployeesById(Schedule schedule) {
+        return schedule.getTeam().getTeamMembers().stream().map(TeamMember::getMember).collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
+    }
+
+    private Map<Long, ScheduleShift> getShiftsById(Schedule schedule) {
+        return schedule.getShifts().stream().collect(Collectors.toMap(ScheduleShift::getId, Function.identity()));
+    }
+
+    private User getEmployee(Map<Long, User> employeesById, long employeeId) {
+        var employee = employeesById.get(employeeId);
+        if (employee == null) {
+            var error = "Employee (user id=%d) does not exist.".formatted(employeeId);
+            throw logAndGetResourceNotFound(error);
+        }
+        return employee;
+    }
+
+    private ScheduleShift getShift(Map<Long, ScheduleShift> shiftsById, long shiftId) {
+        var shift = shiftsById.get(shiftId);
+        if (shift == null) {
+            var error = "Shift (id=%d) does not exist.".formatted(shiftId);
+            throw logAndGetResourceNotFound(error);
+        }
+        return shift;
+    }
+
     private void validateAssignmentDateRange(Instant start, Instant end, ScheduleShift shift, long employeeId) throws DateRangeException {
         dateRangeValidator.validateDateInterval(start, end);
 
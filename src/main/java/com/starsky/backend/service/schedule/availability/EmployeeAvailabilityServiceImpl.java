@@ -10,8 +10,11 @@ import com.starsky.backend.domain.schedule.ScheduleShift;
 import com.starsky.backend.domain.user.Role;
 import com.starsky.backend.domain.user.User;
 import com.starsky.backend.repository.EmployeeAvailabilityRepository;
+import com.starsky.backend.security.AuthenticatedUser;
 import com.starsky.backend.service.schedule.DateRangeValidator;
 import com.starsky.backend.service.schedule.shift.ScheduleShiftService;
+import com.starsky.backend.service.schedule.solve.ScheduleProblemChanges;
+import com.starsky.backend.service.schedule.solve.SolveJobRegistry;
 import com.starsky.backend.service.user.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,14 +33,17 @@ public class EmployeeAvailabilityServiceImpl implements EmployeeAvailabilityServ
     private final ScheduleShiftService scheduleShiftService;
     private final EmployeeAvailabilityRepository employeeAvailabilityRepository;
     private final UserService userService;
+    private final SolveJobRegistry solveJobRegistry;
     private final Logger logger = LoggerFactory.getLogger(EmployeeAvailabilityServiceImpl.class);
 
     public EmployeeAvailabilityServiceImpl(DateRangeValidator dateRangeValidator, ScheduleShiftService scheduleShiftService,
-                                           EmployeeAvailabilityRepository employeeAvailabilityRepository, UserService userService) {
+                                           EmployeeAvailabilityRepository employeeAvailabilityRepository, UserService userService,
+                                           SolveJobRegistry solveJobRegistry) {
         this.dateRangeValidator = dateRangeValidator;
         this.scheduleShiftService = scheduleShiftService;
         this.employeeAvailabilityRepository = employeeAvailabilityRepository;
         this.userService = userService;
+        this.solveJobRegistry = solveJobRegistry;
     }
 
     @Override
@@ -48,19 +54,25 @@ public class EmployeeAvailabilityServiceImpl implements EmployeeAvailabilityServ
 
     @Override
     public EmployeeAvailability getEmployeeAvailability(long availabilityId, User user) throws ResourceNotFoundException, ForbiddenException {
-        var manager = user;
-        if (user.getRole() == Role.EMPLOYEE) {
-            manager = user.getParentUser();
+        var ownerId = AuthenticatedUser.of(user).getOwnerId();
+        if (user.getRole() != Role.EMPLOYEE) {
+            return employeeAvailabilityRepository.getEmployeeAvailabilityByIdAndShiftScheduleTeamOwnerId(availabilityId, ownerId)
+                    .orElseThrow(() -> getResourceNotFoundException(availabilityId, ownerId));
         }
 
-        User finalManager = manager; //lmao java is great
-        var availability = employeeAvailabilityRepository.getEmployeeAvailabilityByIdAndShiftScheduleTeamOwner(availabilityId, manager)
-                .orElseThrow(() -> getResourceNotFoundException(availabilityId, finalManager));
-
-        //this should throw forbidden if the user does not have permission for this resource.. good enough
-        scheduleShiftService.getScheduleShift(availability.getShift().getId(), user);
-
-        return availability;
+        var availability = employeeAvailabilityRepository.getEmployeeAvailabilityByIdAndShiftScheduleTeamMemberId(availabilityId, ownerId, user.getId());
+        if (availability.isPresent()) {
+            return availability.get();
+        }
+        // only an availability that cannot be read takes a second query, to tell an availability of another team apart from one that does not exist
+        if (!employeeAvailabilityRepository.existsByIdAndShiftScheduleTeamOwnerId(availabilityId, ownerId)) {
+            throw getResourceNotFoundException(availabilityId, ownerId);
+        }
+        var message =
+                "Authenticated user (id=%d) does not have necessary permissions to access this availability - does not belong to schedule's team."
+                        .formatted(user.getId());
+        this.logger.warn(message);
+        throw new ForbiddenException(message);
     }
 
     @Override
@@ -74,6 +86,7 @@ public class EmployeeAvailabilityServiceImpl implements EmployeeAvailabilityServ
         checkIfDateIntervalExistsOrOverlaps(availability);
 
         availability = employeeAvailabilityRepository.save(availability);
+        solveJobRegistry.addProblemChange(shift.getSchedule().getId(), ScheduleProblemChanges.addAvailability(availability));
         return availability;
     }
 
@@ -100,7 +113,10 @@ public class EmployeeAvailabilityServiceImpl implements EmployeeAvailabilityServ
     @Override
     public void deleteEmployeeAvailability(long availabilityId, User manager) throws ResourceNotFoundException {
         employeeAvailabilityRepository.getEmployeeAvailabilityByIdAndShiftScheduleTeamOwner(availabilityId, manager)
-                .ifPresentOrElse(employeeAvailabilityRepository::delete, () -> {
+                .ifPresentOrElse(availability -> {
+                    employeeAvailabilityRepository.delete(availability);
+                    solveJobRegistry.addProblemChange(availability.getShift().getSchedule().getId(), ScheduleProblemChanges.removeAvailability(availabilityId));
+                }, () -> {
                     throw getResourceNotFoundException(availabilityId, manager);
                 });
     }
@@ -123,7 +139,9 @@ public class EmployeeAvailabilityServiceImpl implements EmployeeAvailabilityServ
         dateRangeValidator.validateDateInterval(availability.getAvailabilityStart(), availability.getAvailabilityEnd());
         checkIfDateIntervalExistsOrOverlaps(availability);
 
-        return employeeAvailabilityRepository.save(availability);
+        availability = employeeAvailabilityRepository.save(availability);
+        solveJobRegistry.addProblemChange(availability.getShift().getSchedule().getId(), ScheduleProblemChanges.updateAvailability(availability));
+        return availability;
     }
 
     @Override
@@ -157,11 +175,17 @@ public class EmployeeAvailabilityServiceImpl implements EmployeeAvailabilityServ
         }
 
         employeeAvailabilityRepository.deleteAllByShiftIdInAndShiftScheduleTeamOwner(shiftIds, manager);
-        employeeAvailabilityRepository.saveAll(employeeAvailabilities);
+        var savedAvailabilities = employeeAvailabilityRepository.saveAll(employeeAvailabilities);
+        // only shift ids are known here, jobs of schedules that do not contain these shifts ignore the change
+        solveJobRegistry.addProblemChangeForOwner(manager.getId(), ScheduleProblemChanges.replaceAvailabilities(shiftIds, savedAvailabilities));
     }
 
     private ResourceNotFoundException getResourceNotFoundException(long availabilityId, User manager) {
-        var message = "Employee availability (id=%d, owner=%d) does not exist.".formatted(availabilityId, manager.getId());
+        return getResourceNotFoundException(availabilityId, manager.getId());
+    }
+
+    private ResourceNotFoundException getResourceNotFoundException(long availabilityId, long managerId) {
+        var message = "Employee availability (id=%d, owner=%d) does not exist.".formatted(availabilityId, managerId);
         this.logger.warn(message);
         return new ResourceNotFoundException(message);
     }
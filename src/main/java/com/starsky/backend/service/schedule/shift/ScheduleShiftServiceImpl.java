@@ -8,9 +8,11 @@ import com.starsky.backend.domain.schedule.ScheduleShift;
 import com.starsky.backend.domain.user.Role;
 import com.starsky.backend.domain.user.User;
 import com.starsky.backend.repository.ScheduleShiftRepository;
+import com.starsky.backend.security.AuthenticatedUser;
 import com.starsky.backend.service.schedule.DateRangeValidator;
 import com.starsky.backend.service.schedule.ScheduleService;
-import com.starsky.backend.service.team.TeamService;
+import com.starsky.backend.service.schedule.solve.ScheduleProblemChanges;
+import com.starsky.backend.service.schedule.solve.SolveJobRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
@@ -26,15 +28,16 @@ public class ScheduleShiftServiceImpl implements ScheduleShiftService {
 
     private final ScheduleShiftRepository scheduleShiftRepository;
     private final ScheduleService scheduleService;
-    private final TeamService teamService;
     private final DateRangeValidator dateRangeValidator;
+    private final SolveJobRegistry solveJobRegistry;
     private final Logger logger = LoggerFactory.getLogger(ScheduleShiftServiceImpl.class);
 
-    public ScheduleShiftServiceImpl(ScheduleShiftRepository scheduleShiftRepository, ScheduleService scheduleService, TeamService teamService, DateRangeValidator dateRangeValidator) {
+    public ScheduleShiftServiceImpl(ScheduleShiftRepository scheduleShiftRepository, ScheduleService scheduleService, DateRangeValidator dateRangeValidator,
+                                    SolveJobRegistry solveJobRegistry) {
         this.scheduleShiftRepository = scheduleShiftRepository;
         this.scheduleService = scheduleService;
-        this.teamService = teamService;
         this.dateRangeValidator = dateRangeValidator;
+        this.solveJobRegistry = solveJobRegistry;
     }
 
     @Override
@@ -43,39 +46,32 @@ public class ScheduleShiftServiceImpl implements ScheduleShiftService {
         if (user.getRole() == Role.EMPLOYEE) {
             manager = user.getParentUser();
         }
-        var schedule = scheduleService.getSchedule(scheduleId, user); //throws resource not found if schedule does not exist
-
-        if (user.getRole() == Role.EMPLOYEE && teamService.getTeams(user).stream().noneMatch(team -> team.getId() == schedule.getTeam().getId())) {
-            var message =
-                    "Authenticated user (id=%d) does not have necessary permissions to access this schedule's shifts - does not belong to schedule's team."
-                            .formatted(user.getId());
-            this.logger.warn(message);
-            throw new ForbiddenException(message);
-        }
+        // throws resource not found if schedule does not exist, forbidden if the employee does not belong to schedule's team
+        var schedule = scheduleService.getSchedule(scheduleId, user);
         return scheduleShiftRepository.getAllByScheduleAndScheduleTeamOwner(schedule, manager);
     }
 
     @Override
     public ScheduleShift getScheduleShift(long shiftId, User user) throws ForbiddenException, ResourceNotFoundException {
-        User manager = user;
-        if (user.getRole() == Role.EMPLOYEE) {
-            manager = user.getParentUser();
+        var authenticatedUser = AuthenticatedUser.of(user);
+        var ownerId = authenticatedUser.getOwnerId();
+        if (user.getRole() != Role.EMPLOYEE) {
+            return scheduleShiftRepository.getByIdAndScheduleTeamOwnerId(shiftId, ownerId).orElseThrow(() -> getShiftDoesNotExistException(shiftId, ownerId));
         }
 
-        User finalManager = manager; //lol java
-        var scheduleShift = scheduleShiftRepository.getByIdAndScheduleTeamOwner(shiftId, manager).orElseThrow(() -> {
-            return getShiftDoesNotExistException(shiftId, finalManager);
-        });
-
-        if (user.getRole() == Role.EMPLOYEE && teamService.getTeams(user).stream().noneMatch(team -> team.getId() == scheduleShift.getSchedule().getTeam().getId())) {
-            var message =
-                    "Authenticated user (id=%d) does not have necessary permissions to access this schedule's shifts - does not belong to schedule's team."
-                            .formatted(user.getId());
-            this.logger.warn(message);
-            throw new ForbiddenException(message);
+        var scheduleShift = scheduleShiftRepository.getByIdAndScheduleTeamMemberId(shiftId, ownerId, user.getId());
+        if (scheduleShift.isPresent()) {
+            return scheduleShift.get();
         }
-
-        return scheduleShift;
+        // only a shift that cannot be read takes a second query, to tell a shift of another team apart from one that does not exist
+        if (!scheduleShiftRepository.existsByIdAndScheduleTeamOwnerId(shiftId, ownerId)) {
+            throw getShiftDoesNotExistException(shiftId, ownerId);
+        }
+        var message =
+                "Authenticated user (id=%d) does not have necessary permissions to access this schedule's shifts - does not belong to schedule's team."
+                        .formatted(user.getId());
+        this.logger.warn(message);
+        throw new ForbiddenException(message);
     }
 
     @Override
@@ -85,13 +81,17 @@ public class ScheduleShiftServiceImpl implements ScheduleShiftService {
         var scheduleShift = new ScheduleShift(shiftRequest.getShiftStart(), shiftRequest.getShiftEnd(), schedule, shiftRequest.getNumberOfRequiredEmployees());
 //        checkIfDateIntervalExistsOrOverlaps(scheduleShift);
         scheduleShift = scheduleShiftRepository.save(scheduleShift);
+        solveJobRegistry.addProblemChange(scheduleId, ScheduleProblemChanges.addShift(scheduleShift));
         return scheduleShift;
     }
 
     @Override
     public void deleteScheduleShift(long shiftId, User manager) throws ResourceNotFoundException {
         scheduleShiftRepository.getByIdAndScheduleTeamOwner(shiftId, manager)
-                .ifPresentOrElse(scheduleShiftRepository::delete, () -> {
+                .ifPresentOrElse(scheduleShift -> {
+                    scheduleShiftRepository.delete(scheduleShift);
+                    solveJobRegistry.addProblemChange(scheduleShift.getSchedule().getId(), ScheduleProblemChanges.removeShift(shiftId));
+                }, () -> {
                     throw getShiftDoesNotExistException(shiftId, manager);
                 });
     }
@@ -113,7 +113,9 @@ public class ScheduleShiftServiceImpl implements ScheduleShiftService {
         }
         dateRangeValidator.validateDateInterval(scheduleShift.getShiftStart(), scheduleShift.getShiftEnd());
 //        checkIfDateIntervalExistsOrOverlaps(scheduleShift);
-        return scheduleShiftRepository.save(scheduleShift);
+        scheduleShift = scheduleShiftRepository.save(scheduleShift);
+        solveJobRegistry.addProblemChange(scheduleShift.getSchedule().getId(), ScheduleProblemChanges.updateShift(scheduleShift));
+        return scheduleShift;
     }
 
     @Override
@@ -133,11 +135,17 @@ public class ScheduleShiftServiceImpl implements ScheduleShiftService {
         }
 
 //        scheduleShiftRepository.deleteByScheduleIdAndScheduleTeamOwner(scheduleId, owner);
-        return scheduleShiftRepository.saveAll(shifts);
+        var savedShifts = scheduleShiftRepository.saveAll(shifts);
+        savedShifts.forEach(shift -> solveJobRegistry.addProblemChange(scheduleId, ScheduleProblemChanges.addShift(shift)));
+        return savedShifts;
     }
 
     private ResourceNotFoundException getShiftDoesNotExistException(long shiftId, User manager) {
-        var message = "Schedule shift (id=%d, owner=%d) does not exist.".formatted(shiftId, manager.getId());
+        return getShiftDoesNotExistException(shiftId, manager.getId());
+    }
+
+    private ResourceNotFoundException getShiftDoesNotExistException(long shiftId, long managerId) {
+        var message = "Schedule shift (id=%d, owner=%d) does not exist.".formatted(shiftId, managerId);
         this.logger.warn(message);
         return new ResourceNotFoundException(message);
     }
@@ -0,0 +1,48 @@
+package com.starsky.backend.service.schedule.solve;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts of the availabilities of a schedule, built once per solution for sorting planning entities and values in the construction heuristic.
+ * Only availabilities that cover the whole shift are counted - an employee that is available for a part of a shift cannot take an assignment
+ * of the whole shift without breaking the "employee is available" constraint.
+ */
+public class AvailabilityIndex {
+    private final Map<Long, Integer> availableEmployeesByShiftId;
+    private final Map<Long, Integer> availableShiftsByEmployeeId;
+
+    private AvailabilityIndex(Map<Long, Integer> availableEmployeesByShiftId, Map<Long, Integer> availableShiftsByEmployeeId) {
+        this.availableEmployeesByShiftId = availableEmployeesByShiftId;
+        this.availableShiftsByEmployeeId = availableShiftsByEmployeeId;
+    }
+
+    public static AvailabilityIndex of(SolvedSchedule solution) {
+        var employeesByShiftId = new HashMap<Long, Set<Long>>();
+        for (var availability : solution.getAvailabilities()) {
+            var shift = availability.getShift();
+            if (availability.getStartSeconds() > shift.getShiftStart().getEpochSecond() || availability.getEndSeconds() < shift.getShiftEnd().getEpochSecond()) {
+                continue;
+            }
+            employeesByShiftId.computeIfAbsent(shift.getId(), id -> new HashSet<>()).add(availability.getEmployee().getId());
+        }
+
+        var availableEmployeesByShiftId = new HashMap<Long, Integer>();
+        var availableShiftsByEmployeeId = new HashMap<Long, Integer>();
+        employeesByShiftId.forEach((shiftId, employeeIds) -> {
+            availableEmployeesByShiftId.put(shiftId, employeeIds.size());
+            employeeIds.forEach(employeeId -> availableShiftsByEmployeeId.merge(employeeId, 1, Integer::sum));
+        });
+        return new AvailabilityIndex(availableEmployeesByShiftId, availableShiftsByEmployeeId);
+    }
+
+    public int getAvailableEmployeeCount(long shiftId) {
+        return availableEmployeesByShiftId.getOrDefault(shiftId, 0);
+    }
+
+    public int getAvailableShiftCount(long employeeId) {
+        return availableShiftsByEmployeeId.getOrDefault(employeeId, 0);
+    }
+}
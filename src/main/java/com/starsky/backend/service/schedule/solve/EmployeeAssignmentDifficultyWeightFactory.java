@@ -0,0 +1,43 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionSorterWeightFactory;
+
+import java.util.Comparator;
+
+/**
+ * Assignments of shifts with fewer available employees are more difficult - the construction heuristic assigns them first, while their few
+ * available employees are still free. Among shifts with the same number of available employees, shifts that require more employees go first.
+ */
+public class EmployeeAssignmentDifficultyWeightFactory implements SelectionSorterWeightFactory<SolvedSchedule, EmployeeAssignment> {
+
+    @Override
+    public Comparable<?> createSorterWeight(SolvedSchedule solution, EmployeeAssignment assignment) {
+        var shift = assignment.getShift();
+        return new DifficultyWeight(solution.getAvailabilityIndex().getAvailableEmployeeCount(shift.getId()),
+                shift.getNumberOfRequiredEmployees(), assignment.getPlanningId() == null ? 0 : assignment.getPlanningId());
+    }
+
+    private static class DifficultyWeight implements Comparable<DifficultyWeight> {
+        // higher is more difficult, the planning id only makes the order deterministic
+        private static final Comparator<DifficultyWeight> COMPARATOR = Comparator
+                .comparingInt((DifficultyWeight weight) -> -weight.availableEmployees)
+                .thenComparingInt(weight -> weight.requiredEmployees)
+                .thenComparingLong(weight -> -weight.planningId);
+
+        private final int availableEmployees;
+        private final int requiredEmployees;
+        private final long planningId;
+
+        private DifficultyWeight(int availableEmployees, int requiredEmployees, long planningId) {
+            this.availableEmployees = availableEmployees;
+            this.requiredEmployees = requiredEmployees;
+            this.planningId = planningId;
+        }
+
+        @Override
+        public int compareTo(DifficultyWeight other) {
+            return COMPARATOR.compare(this, other);
+        }
+    }
+}
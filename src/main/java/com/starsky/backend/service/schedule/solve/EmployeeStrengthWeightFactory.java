@@ -0,0 +1,38 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.domain.user.User;
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionSorterWeightFactory;
+
+import java.util.Comparator;
+
+/**
+ * Employees that are available for more shifts are stronger. The construction heuristic tries the weakest employees first, so employees
+ * that are only available for a few shifts get those shifts, and the flexible employees are kept for the shifts nobody else can take.
+ */
+public class EmployeeStrengthWeightFactory implements SelectionSorterWeightFactory<SolvedSchedule, User> {
+
+    @Override
+    public Comparable<?> createSorterWeight(SolvedSchedule solution, User employee) {
+        return new StrengthWeight(solution.getAvailabilityIndex().getAvailableShiftCount(employee.getId()), employee.getId());
+    }
+
+    private static class StrengthWeight implements Comparable<StrengthWeight> {
+        // the employee id only makes the order deterministic
+        private static final Comparator<StrengthWeight> COMPARATOR = Comparator
+                .comparingInt((StrengthWeight weight) -> weight.availableShifts)
+                .thenComparingLong(weight -> weight.employeeId);
+
+        private final int availableShifts;
+        private final long employeeId;
+
+        private StrengthWeight(int availableShifts, long employeeId) {
+            this.availableShifts = availableShifts;
+            this.employeeId = employeeId;
+        }
+
+        @Override
+        public int compareTo(StrengthWeight other) {
+            return COMPARATOR.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.EmployeeAvailability;
+import com.starsky.backend.domain.schedule.ScheduleShift;
+import com.starsky.backend.domain.user.User;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+
+/**
+ * SHA-256 hash over everything the solver reads from a problem - schedule limits, shifts, availabilities, employees and the assignments
+ * the solver starts from (locked and warm-started ones). Two problems with the same fingerprint have the same solutions,
+ * and any edit of an input entity changes the fingerprint. Employee names are part of it too - score explanations cached by fingerprint
+ * report them. Collections are hashed in id order, the order of the problem lists is random.
+ */
+public final class ProblemFingerprint {
+
+    private ProblemFingerprint() {
+    }
+
+    public static String of(SolvedSchedule problem) {
+        var builder = new StringBuilder();
+        var limits = problem.getLimits();
+        builder.append("schedule:").append(problem.getScheduleId())
+                .append(':').append(limits.getMaxShiftsPerEmployee())
+                .append(':').append(limits.getMaxHoursPerEmployee())
+                .append(':').append(limits.getMaxHoursPerShift()).append('\n');
+
+        problem.getShifts().stream().sorted(Comparator.comparing(ScheduleShift::getId)).forEach(shift ->
+                builder.append("shift:").append(shift.getId())
+                        .append(':').append(shift.getShiftStart())
+                        .append(':').append(shift.getShiftEnd())
+                        .append(':').append(shift.getNumberOfRequiredEmployees()).append('\n'));
+
+        problem.getAvailabilities().stream().sorted(Comparator.comparing(EmployeeAvailability::getId)).forEach(availability ->
+                builder.append("availability:").append(availability.getId())
+                        .append(':').append(availability.getEmployee().getId())
+                        .append(':').append(availability.getShift().getId())
+                        .append(':').append(availability.getAvailabilityStart())
+                        .append(':').append(availability.getAvailabilityEnd())
+                        .append(':').append(availability.getMaxHoursPerShift()).append('\n'));
+
+        problem.getEmployees().stream().sorted(Comparator.comparing(User::getId)).forEach(employee ->
+                builder.append("employee:").append(employee.getId())
+                        .append(':').append(employee.getName()).append('\n'));
+
+        problem.getEmployeeAssignments().stream()
+                .map(ProblemFingerprint::describe)
+                .sorted()
+                .forEach(assignment -> builder.append(assignment).append('\n'));
+
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+            return "%064x".formatted(new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String describe(EmployeeAssignment assignment) {
+        return "assignment:%d:%s:%s:%s:%b".formatted(assignment.getShift().getId(),
+                assignment.getEmployee() == null ? "-" : assignment.getEmployee().getId() + ":" + assignment.getEmployee().getName(),
+                assignment.getAssignmentStart(), assignment.getAssignmentEnd(), assignment.isLocked());
+    }
+}
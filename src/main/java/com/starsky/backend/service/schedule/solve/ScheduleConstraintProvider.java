@@ -2,7 +2,6 @@ package com.starsky.backend.service.schedule.solve;
 
 import com.starsky.backend.domain.schedule.EmployeeAssignment;
 import com.starsky.backend.domain.schedule.EmployeeAvailability;
-import com.starsky.backend.domain.schedule.ScheduleShift;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import org.optaplanner.core.api.score.stream.*;
 
@@ -49,68 +48,66 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
         return constraintFactory
                 .fromUniquePair(EmployeeAssignment.class,
                         Joiners.equal(EmployeeAssignment::getEmployee),
-                        Joiners.equal(EmployeeAssignment::getShiftDayNumber))
+                        Joiners.equal(EmployeeAssignment::getDayIndex))
                 .penalize("one shift per day", HardSoftScore.ONE_SOFT);
     }
 
+    // an assignment is covered when one of the employee's availabilities starts before (or at) and ends after (or at) the assignment,
+    // the range joiners only visit such availabilities instead of filtering every availability of the employee
     public Constraint employeeIsAvailable(ConstraintFactory constraintFactory) {
-        return constraintFactory.
-                from(EmployeeAssignment.class).
-                join(EmployeeAvailability.class, Joiners.equal(EmployeeAssignment::getEmployee, EmployeeAvailability::getEmployee))
-                .filter((assignment, availability) -> availability.getShiftDate().isSubsetOfShift(assignment.getShiftDate()))
+        return constraintFactory
+                .from(EmployeeAssignment.class)
+                .ifExists(EmployeeAvailability.class,
+                        Joiners.equal(EmployeeAssignment::getEmployee, EmployeeAvailability::getEmployee),
+                        Joiners.greaterThanOrEqual(EmployeeAssignment::getStartSeconds, EmployeeAvailability::getStartSeconds),
+                        Joiners.lessThanOrEqual(EmployeeAssignment::getEndSeconds, EmployeeAvailability::getEndSeconds))
                 .reward("employee is available", HardSoftScore.ONE_SOFT);
     }
 
     public Constraint employeeIsNotAvailable(ConstraintFactory constraintFactory) {
-        return constraintFactory.
-                from(EmployeeAssignment.class).
-                join(EmployeeAvailability.class, Joiners.equal(EmployeeAssignment::getEmployee, EmployeeAvailability::getEmployee))
-                .filter((assignment, availability) -> !availability.getShiftDate().isSubsetOfShift(assignment.getShiftDate()))
+        return constraintFactory
+                .from(EmployeeAssignment.class)
+                .ifNotExists(EmployeeAvailability.class,
+                        Joiners.equal(EmployeeAssignment::getEmployee, EmployeeAvailability::getEmployee),
+                        Joiners.greaterThanOrEqual(EmployeeAssignment::getStartSeconds, EmployeeAvailability::getStartSeconds),
+                        Joiners.lessThanOrEqual(EmployeeAssignment::getEndSeconds, EmployeeAvailability::getEndSeconds))
                 .penalize("employee is not available", HardSoftScore.ONE_SOFT);
     }
 
     public Constraint employeeHasTooManyShiftsAssigned(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .from(EmployeeAssignment.class)
-                .join(ScheduleShift.class)
-                .filter((employeeAssignment, scheduleShift) -> employeeAssignment.getEmployee() != null)
-                .groupBy((employeeAssignment, scheduleShift) -> employeeAssignment.getEmployee(),
-                        (employeeAssignment, scheduleShift) -> scheduleShift,
-                        ConstraintCollectors.countBi())
-                .filter((user, scheduleShift, shiftCount) -> scheduleShift.getSchedule().getMaxShiftsPerEmployee() < shiftCount)
-                .penalize("employee has more than max shifts assigned", HardSoftScore.ONE_SOFT, (user, scheduleShift, shiftCount) -> shiftCount - scheduleShift.getSchedule().getMaxShiftsPerEmployee());
+                .groupBy(EmployeeAssignment::getEmployee, ConstraintCollectors.count())
+                .join(ScheduleLimits.class)
+                .filter((employee, shiftCount, limits) -> limits.getMaxShiftsPerEmployee() < shiftCount)
+                .penalize("employee has more than max shifts assigned", HardSoftScore.ONE_SOFT, (employee, shiftCount, limits) -> shiftCount - limits.getMaxShiftsPerEmployee());
     }
 
     public Constraint employeeHasLessThanMaxShiftsAssigned(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .from(EmployeeAssignment.class)
-                .join(ScheduleShift.class)
-                .filter((employeeAssignment, scheduleShift) -> employeeAssignment.getEmployee() != null)
-                .groupBy((employeeAssignment, scheduleShift) -> employeeAssignment.getEmployee(),
-                        (employeeAssignment, scheduleShift) -> scheduleShift,
-                        ConstraintCollectors.countBi())
-                .filter((user, scheduleShift, shiftCount) -> scheduleShift.getSchedule().getMaxShiftsPerEmployee() > shiftCount)
-                .reward("employee has less than max shifts assigned", HardSoftScore.ONE_SOFT, (user, scheduleShift, shiftCount) -> scheduleShift.getSchedule().getMaxShiftsPerEmployee() - shiftCount);
+                .groupBy(EmployeeAssignment::getEmployee, ConstraintCollectors.count())
+                .join(ScheduleLimits.class)
+                .filter((employee, shiftCount, limits) -> limits.getMaxShiftsPerEmployee() > shiftCount)
+                .reward("employee has less than max shifts assigned", HardSoftScore.ONE_SOFT, (employee, shiftCount, limits) -> limits.getMaxShiftsPerEmployee() - shiftCount);
     }
 
     public Constraint employeeHasTooManyHoursAssigned(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .from(EmployeeAssignment.class)
-                .join(ScheduleShift.class)
-                .filter((employeeAssignment, scheduleShift) -> employeeAssignment.getEmployee() != null)
-                .groupBy((employeeAssignment, scheduleShift) -> employeeAssignment.getEmployee(), (employeeAssignment, scheduleShift) -> scheduleShift, ConstraintCollectors.sumLong((a, b) -> a.getHourDuration()))
-                .filter((user, scheduleShift, totalHours) -> scheduleShift.getSchedule().getMaxHoursPerEmployee() < totalHours)
-                .penalize("employee has more hours assigned than max hours per employee", HardSoftScore.ONE_SOFT, (user, scheduleShift, totalHours) -> totalHours.intValue() - scheduleShift.getSchedule().getMaxHoursPerEmployee());
+                .groupBy(EmployeeAssignment::getEmployee, ConstraintCollectors.sumLong(EmployeeAssignment::getHourDuration))
+                .join(ScheduleLimits.class)
+                .filter((employee, totalHours, limits) -> limits.getMaxHoursPerEmployee() < totalHours)
+                .penalize("employee has more hours assigned than max hours per employee", HardSoftScore.ONE_SOFT, (employee, totalHours, limits) -> totalHours.intValue() - limits.getMaxHoursPerEmployee());
     }
 
     public Constraint employeeHasLessThanMaxHoursAssigned(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .from(EmployeeAssignment.class)
-                .join(ScheduleShift.class)
-                .filter((employeeAssignment, scheduleShift) -> employeeAssignment.getEmployee() != null)
-                .groupBy((employeeAssignment, scheduleShift) -> employeeAssignment.getEmployee(), (employeeAssignment, scheduleShift) -> scheduleShift, ConstraintCollectors.sumLong((a, b) -> a.getHourDuration()))
-                .filter((user, scheduleShift, totalHours) -> scheduleShift.getSchedule().getMaxHoursPerEmployee() > totalHours)
-                .reward("employee has less hours assigned than max hours per employee", HardSoftScore.ONE_SOFT, (user, scheduleShift, totalHours) -> scheduleShift.getSchedule().getMaxHoursPerEmployee() - totalHours.intValue());
+                .groupBy(EmployeeAssignment::getEmployee, ConstraintCollectors.sumLong(EmployeeAssignment::getHourDuration))
+                .join(ScheduleLimits.class)
+                .filter((employee, totalHours, limits) -> limits.getMaxHoursPerEmployee() > totalHours)
+                .reward("employee has less hours assigned than max hours per employee", HardSoftScore.ONE_SOFT, (employee, totalHours, limits) -> limits.getMaxHoursPerEmployee() - totalHours.intValue());
     }
 
 }
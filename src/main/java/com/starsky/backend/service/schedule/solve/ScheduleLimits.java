@@ -0,0 +1,35 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.domain.schedule.Schedule;
+
+/**
+ * Per employee limits of the schedule that is being solved. It is a single problem fact, so constraints can join it once per employee
+ * instead of reaching the limits through every shift.
+ */
+public class ScheduleLimits {
+    private final int maxShiftsPerEmployee;
+    private final int maxHoursPerEmployee;
+    private final int maxHoursPerShift;
+
+    public ScheduleLimits(int maxShiftsPerEmployee, int maxHoursPerEmployee, int maxHoursPerShift) {
+        this.maxShiftsPerEmployee = maxShiftsPerEmployee;
+        this.maxHoursPerEmployee = maxHoursPerEmployee;
+        this.maxHoursPerShift = maxHoursPerShift;
+    }
+
+    public ScheduleLimits(Schedule schedule) {
+        this(schedule.getMaxShiftsPerEmployee(), schedule.getMaxHoursPerEmployee(), schedule.getMaxHoursPerShift());
+    }
+
+    public int getMaxShiftsPerEmployee() {
+        return maxShiftsPerEmployee;
+    }
+
+    public int getMaxHoursPerEmployee() {
+        return maxHoursPerEmployee;
+    }
+
+    public int getMaxHoursPerShift() {
+        return maxHoursPerShift;
+    }
+}
@@ -0,0 +1,230 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.EmployeeAvailability;
+import com.starsky.backend.domain.schedule.ScheduleShift;
+import com.starsky.backend.domain.schedule.ShiftDate;
+import com.starsky.backend.domain.user.User;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Problem changes for edits that are made while a schedule is being solved. The solver folds them into its working solution instead of restarting the search.
+ * <p>
+ * Edited values are captured when the change is created, on the request thread - the change itself runs later on the solver thread,
+ * where the persistence context of the request is no longer available. Working objects are always looked up by their database id,
+ * and changes that do not concern the working solution (for example a shift of another schedule) do nothing.
+ */
+public final class ScheduleProblemChanges {
+
+    private ScheduleProblemChanges() {
+    }
+
+    public static ProblemChange<SolvedSchedule> addShift(ScheduleShift shift) {
+        var schedule = shift.getSchedule();
+        long scheduleId = schedule.getId();
+        long shiftId = shift.getId();
+        var shiftStart = shift.getShiftStart();
+        var shiftEnd = shift.getShiftEnd();
+        int numberOfRequiredEmployees = shift.getNumberOfRequiredEmployees();
+
+        return (workingSolution, director) -> {
+            if (workingSolution.getScheduleId() != scheduleId || findShift(workingSolution, shiftId).isPresent()) {
+                return;
+            }
+            // the constraints read the schedule limits from the ScheduleLimits problem fact, not from the schedule of the shift
+            var workingShift = new ScheduleShift(shiftStart, shiftEnd, schedule, numberOfRequiredEmployees);
+            workingShift.setId(shiftId);
+            director.addProblemFact(workingShift, workingSolution.getShifts()::add);
+            for (int i = 0; i < numberOfRequiredEmployees; i++) {
+                director.addEntity(newAssignment(workingSolution, workingShift, shiftStart, shiftEnd), workingSolution.getEmployeeAssignments()::add);
+            }
+        };
+    }
+
+    public static ProblemChange<SolvedSchedule> updateShift(ScheduleShift shift) {
+        long shiftId = shift.getId();
+        var shiftStart = shift.getShiftStart();
+        var shiftEnd = shift.getShiftEnd();
+        int numberOfRequiredEmployees = shift.getNumberOfRequiredEmployees();
+
+        return (workingSolution, director) -> findShift(workingSolution, shiftId).ifPresent(workingShift -> {
+            // working shifts are detached copies of the saved shifts, see ScheduleSolveServiceImpl
+            director.changeProblemProperty(workingShift, s -> {
+                s.setShiftStart(shiftStart);
+                s.setShiftEnd(shiftEnd);
+                s.setNumberOfRequiredEmployees(numberOfRequiredEmployees);
+            });
+
+            // unassigned slots go first and locked assignments last, so that as many employees as possible keep their assignment when the shift gets smaller
+            var assignments = getAssignments(workingSolution, shiftId);
+            assignments.sort(Comparator.comparing(EmployeeAssignment::isLocked).thenComparing(assignment -> assignment.getEmployee() != null));
+            while (assignments.size() > numberOfRequiredEmployees && !assignments.get(0).isLocked()) {
+                director.removeEntity(assignments.remove(0), workingSolution.getEmployeeAssignments()::remove);
+            }
+            for (var assignment : assignments) {
+                if (assignment.isLocked()) {
+                    continue;
+                }
+                director.changeProblemProperty(assignment, a -> {
+                    a.setAssignmentStart(shiftStart);
+                    a.setAssignmentEnd(shiftEnd);
+                    a.setShiftDate(new ShiftDate(shiftStart, shiftEnd));
+                });
+            }
+            for (int i = assignments.size(); i < numberOfRequiredEmployees; i++) {
+                director.addEntity(newAssignment(workingSolution, workingShift, shiftStart, shiftEnd), workingSolution.getEmployeeAssignments()::add);
+            }
+        });
+    }
+
+    public static ProblemChange<SolvedSchedule> removeShift(long shiftId) {
+        return (workingSolution, director) -> findShift(workingSolution, shiftId).ifPresent(workingShift -> {
+            for (var assignment : getAssignments(workingSolution, shiftId)) {
+                director.removeEntity(assignment, workingSolution.getEmployeeAssignments()::remove);
+            }
+            var availabilities = workingSolution.getAvailabilities().stream()
+                    .filter(availability -> availability.getShift().getId() == shiftId)
+                    .collect(Collectors.toList());
+            for (var availability : availabilities) {
+                director.removeProblemFact(availability, workingSolution.getAvailabilities()::remove);
+            }
+            director.removeProblemFact(workingShift, workingSolution.getShifts()::remove);
+        });
+    }
+
+    public static ProblemChange<SolvedSchedule> addAvailability(EmployeeAvailability availability) {
+        return replaceAvailabilities(List.of(), List.of(availability));
+    }
+
+    public static ProblemChange<SolvedSchedule> updateAvailability(EmployeeAvailability availability) {
+        long availabilityId = availability.getId();
+        var availabilityStart = availability.getAvailabilityStart();
+        var availabilityEnd = availability.getAvailabilityEnd();
+        int maxHoursPerShift = availability.getMaxHoursPerShift();
+
+        return (workingSolution, director) -> findAvailability(workingSolution, availabilityId).ifPresent(workingAvailability ->
+                director.changeProblemProperty(workingAvailability, a -> {
+                    a.setAvailabilityStart(availabilityStart);
+                    a.setAvailabilityEnd(availabilityEnd);
+                    a.setMaxHoursPerShift(maxHoursPerShift);
+                    a.setShiftDate(new ShiftDate(availabilityStart, availabilityEnd));
+                }));
+    }
+
+    public static ProblemChange<SolvedSchedule> removeAvailability(long availabilityId) {
+        return (workingSolution, director) -> findAvailability(workingSolution, availabilityId).ifPresent(workingAvailability ->
+                director.removeProblemFact(workingAvailability, workingSolution.getAvailabilities()::remove));
+    }
+
+    /**
+     * Removes every availability of the given shifts from the working solution and adds the new availabilities instead.
+     * Employees that become available are added to the employee value range.
+     */
+    public static ProblemChange<SolvedSchedule> replaceAvailabilities(Collection<Long> shiftIds, List<EmployeeAvailability> availabilities) {
+        var replacedShiftIds = new HashSet<>(shiftIds);
+        var added = availabilities.stream().map(AvailabilityValues::new).collect(Collectors.toList());
+
+        return (workingSolution, director) -> {
+            var removed = workingSolution.getAvailabilities().stream()
+                    .filter(availability -> replacedShiftIds.contains(availability.getShift().getId()))
+                    .collect(Collectors.toList());
+            for (var availability : removed) {
+                director.removeProblemFact(availability, workingSolution.getAvailabilities()::remove);
+            }
+
+            for (var values : added) {
+                var workingShift = findShift(workingSolution, values.shiftId);
+                if (workingShift.isEmpty() || findAvailability(workingSolution, values.id).isPresent()) {
+                    continue;
+                }
+                var workingEmployee = findEmployee(workingSolution, values.employee.getId()).orElseGet(() -> {
+                    director.addProblemFact(values.employee, workingSolution.getEmployees()::add);
+                    return values.employee;
+                });
+                var workingAvailability = new EmployeeAvailability(workingEmployee, workingShift.get(), values.start, values.end, values.maxHoursPerShift);
+                workingAvailability.setId(values.id);
+                director.addProblemFact(workingAvailability, workingSolution.getAvailabilities()::add);
+            }
+        };
+    }
+
+    /**
+     * Takes the employee out of the working solution - their assignments become unassigned and their availabilities are dropped.
+     * Locked assignments are pinned, the solver never changes them, so they keep the employee.
+     */
+    public static ProblemChange<SolvedSchedule> removeEmployee(long employeeId) {
+        return (workingSolution, director) -> findEmployee(workingSolution, employeeId).ifPresent(workingEmployee -> {
+            workingSolution.getEmployeeAssignments().stream()
+                    .filter(assignment -> assignment.getEmployee() == workingEmployee && !assignment.isLocked())
+                    .forEach(assignment -> director.changeVariable(assignment, "employee", a -> a.setEmployee(null)));
+            var availabilities = workingSolution.getAvailabilities().stream()
+                    .filter(availability -> availability.getEmployee() == workingEmployee)
+                    .collect(Collectors.toList());
+            for (var availability : availabilities) {
+                director.removeProblemFact(availability, workingSolution.getAvailabilities()::remove);
+            }
+            director.removeProblemFact(workingEmployee, workingSolution.getEmployees()::remove);
+        });
+    }
+
+    private static Optional<ScheduleShift> findShift(SolvedSchedule workingSolution, long shiftId) {
+        return workingSolution.getShifts().stream().filter(shift -> shift.getId() == shiftId).findAny();
+    }
+
+    private static Optional<EmployeeAvailability> findAvailability(SolvedSchedule workingSolution, long availabilityId) {
+        return workingSolution.getAvailabilities().stream().filter(availability -> availability.getId() == availabilityId).findAny();
+    }
+
+    private static Optional<User> findEmployee(SolvedSchedule workingSolution, long employeeId) {
+        return workingSolution.getEmployees().stream().filter(employee -> employee.getId() == employeeId).findAny();
+    }
+
+    /**
+     * Creates an unassigned assignment with the next free planning id of the working solution.
+     */
+    private static EmployeeAssignment newAssignment(SolvedSchedule workingSolution, ScheduleShift workingShift, Instant start, Instant end) {
+        long planningId = workingSolution.getEmployeeAssignments().stream()
+                .map(EmployeeAssignment::getPlanningId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(-1) + 1;
+        var assignment = new EmployeeAssignment(null, workingShift, start, end);
+        assignment.setPlanningId(planningId);
+        return assignment;
+    }
+
+    private static List<EmployeeAssignment> getAssignments(SolvedSchedule workingSolution, long shiftId) {
+        return workingSolution.getEmployeeAssignments().stream()
+                .filter(assignment -> assignment.getShift().getId() == shiftId)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static class AvailabilityValues {
+        private final long id;
+        private final long shiftId;
+        private final User employee;
+        private final Instant start;
+        private final Instant end;
+        private final int maxHoursPerShift;
+
+        private AvailabilityValues(EmployeeAvailability availability) {
+            this.id = availability.getId();
+            this.shiftId = availability.getShift().getId();
+            this.employee = availability.getEmployee();
+            this.start = availability.getAvailabilityStart();
+            this.end = availability.getAvailabilityEnd();
+            this.maxHoursPerShift = availability.getMaxHoursPerShift();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.api.schedule.solve.ConstraintScoreResponse;
+import com.starsky.backend.api.schedule.solve.EmployeeScoreResponse;
+import com.starsky.backend.api.schedule.solve.ScoreExplanationResponse;
+import com.starsky.backend.cache.ExpiringCache;
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.EmployeeAvailability;
+import com.starsky.backend.domain.user.User;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Explains the score of a schedule with the {@link ScoreManager} - how much every constraint and every employee adds to the score.
+ * Explanations are cached by the {@link ProblemFingerprint} of the problem, so viewing them again is cheap until the schedule
+ * or its assignments change.
+ */
+@Component
+public class ScheduleScoreExplainer {
+    private final ScoreManager<SolvedSchedule, HardSoftScore> scoreManager;
+    private final ExpiringCache<String, ScoreExplanationResponse> explanations;
+
+    public ScheduleScoreExplainer(ScoreManager<SolvedSchedule, HardSoftScore> scoreManager,
+                                  @Value("${starsky.solver.score-explanation-cache.max-size:100}") int maxSize,
+                                  @Value("${starsky.solver.score-explanation-cache.time-to-live:1h}") Duration timeToLive) {
+        this.scoreManager = scoreManager;
+        this.explanations = new ExpiringCache<>(maxSize, timeToLive);
+    }
+
+    public ScoreExplanationResponse explain(SolvedSchedule problem) {
+        var fingerprint = ProblemFingerprint.of(problem);
+        var cached = explanations.get(fingerprint);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        var explanation = explainUncached(problem);
+        explanations.put(fingerprint, explanation);
+        return explanation;
+    }
+
+    private ScoreExplanationResponse explainUncached(SolvedSchedule problem) {
+        var explanation = scoreManager.explainScore(problem);
+
+        var constraints = explanation.getConstraintMatchTotalMap().values().stream()
+                .filter(total -> total.getConstraintMatchCount() > 0)
+                .sorted(Comparator.comparing(total -> total.getScore()))
+                .map(total -> new ConstraintScoreResponse(total.getConstraintName(), total.getScore().toString(), total.getConstraintMatchCount()))
+                .toArray(ConstraintScoreResponse[]::new);
+
+        // a match counts once for every employee it involves, even if it is justified by several of their assignments
+        var employeesById = new HashMap<Long, User>();
+        var scores = new HashMap<Long, HardSoftScore>();
+        var matchCounts = new HashMap<Long, Integer>();
+        for (var total : explanation.getConstraintMatchTotalMap().values()) {
+            for (var match : total.getConstraintMatchSet()) {
+                var employees = match.getJustificationList().stream()
+                        .map(ScheduleScoreExplainer::getEmployee)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toMap(User::getId, employee -> employee, (a, b) -> a));
+                employees.forEach((id, employee) -> {
+                    employeesById.putIfAbsent(id, employee);
+                    scores.merge(id, match.getScore(), HardSoftScore::add);
+                    matchCounts.merge(id, 1, Integer::sum);
+                });
+            }
+        }
+        var employees = scores.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .map(entry -> {
+                    var employee = employeesById.get(entry.getKey());
+                    return new EmployeeScoreResponse(employee.getId(), employee.getName(), entry.getValue().toString(), matchCounts.get(entry.getKey()));
+                })
+                .toArray(EmployeeScoreResponse[]::new);
+
+        return new ScoreExplanationResponse(problem.getScheduleId(), explanation.getScore().toString(), constraints, employees);
+    }
+
+    private static User getEmployee(Object justification) {
+        if (justification instanceof User) {
+            return (User) justification;
+        }
+        if (justification instanceof EmployeeAssignment) {
+            return ((EmployeeAssignment) justification).getEmployee();
+        }
+        if (justification instanceof EmployeeAvailability) {
+            return ((EmployeeAvailability) justification).getEmployee();
+        }
+        return null;
+    }
+}
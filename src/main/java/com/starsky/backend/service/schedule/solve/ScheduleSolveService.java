@@ -1,12 +1,47 @@
 package com.starsky.backend.service.schedule.solve;
 
+import com.starsky.backend.api.exception.DateRangeException;
 import com.starsky.backend.api.exception.ForbiddenException;
 import com.starsky.backend.api.exception.ScheduleUnsolvableException;
+import com.starsky.backend.api.exception.SolveQueueFullException;
+import com.starsky.backend.api.schedule.solve.ScoreExplanationResponse;
+import com.starsky.backend.api.schedule.solve.SolveJobResponse;
 import com.starsky.backend.domain.schedule.EmployeeAssignment;
 import com.starsky.backend.domain.user.User;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface ScheduleSolveService {
-    List<EmployeeAssignment> solveSchedule(long scheduleId, User user) throws ForbiddenException, ScheduleUnsolvableException;
+    CompletableFuture<List<EmployeeAssignment>> solveSchedule(long scheduleId, User user, SolveOptions options) throws ForbiddenException, ScheduleUnsolvableException, SolveQueueFullException;
+
+    SolveJob startSolving(long scheduleId, User user, SolveOptions options) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, SolveQueueFullException;
+
+    /**
+     * Starts solving under the given job id - used by {@link SolveWorker} for jobs of the shared job table.
+     */
+    SolveJob startSolving(UUID jobId, long scheduleId, User user, SolveOptions options) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, SolveQueueFullException;
+
+    /**
+     * Starts solving on this node, or adds the job to the shared job table when solving is distributed across nodes.
+     */
+    SolveJobResponse submitSolveJob(long scheduleId, User user, SolveOptions options) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, SolveQueueFullException;
+
+    /**
+     * Returns a solve job that is known to this node.
+     */
+    SolveJob getSolveJob(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException;
+
+    SolveJobResponse getSolveJobState(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException;
+
+    Flux<SolveJobResponse> getSolveJobUpdates(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException;
+
+    void cancelSolveJob(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException;
+
+    ScoreExplanationResponse explainScore(long scheduleId, User user) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException;
+
+    void applySolveJob(long scheduleId, UUID jobId, User user) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, DateRangeException;
 }
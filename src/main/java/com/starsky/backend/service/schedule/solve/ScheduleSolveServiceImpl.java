@@ -1,12 +1,20 @@
 package com.starsky.backend.service.schedule.solve;
 
+import com.starsky.backend.api.exception.DateRangeException;
 import com.starsky.backend.api.exception.ForbiddenException;
 import com.starsky.backend.api.exception.ScheduleUnsolvableException;
+import com.starsky.backend.api.exception.SolveQueueFullException;
+import com.starsky.backend.api.schedule.solve.ScoreExplanationResponse;
+import com.starsky.backend.api.schedule.solve.SolveJobResponse;
 import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.EmployeeAvailability;
 import com.starsky.backend.domain.schedule.ScheduleShift;
+import com.starsky.backend.domain.schedule.ScheduleSolveJob;
 import com.starsky.backend.domain.team.TeamMember;
 import com.starsky.backend.domain.user.User;
+import com.starsky.backend.repository.EmployeeAssignmentRepository;
 import com.starsky.backend.service.schedule.ScheduleService;
+import com.starsky.backend.service.schedule.assignment.EmployeeAssignmentService;
 import com.starsky.backend.service.team.TeamService;
 import org.optaplanner.core.api.solver.SolverManager;
 import org.slf4j.Logger;
@@ -14,9 +22,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.*;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,18 +35,187 @@ public class ScheduleSolveServiceImpl implements ScheduleSolveService {
     private final ScheduleService scheduleService;
     private final SolverManager<SolvedSchedule, UUID> solverManager;
     private final TeamService teamService;
+    private final SolveJobRegistry solveJobRegistry;
+    private final EmployeeAssignmentRepository employeeAssignmentRepository;
+    private final SolveTerminationPolicy solveTerminationPolicy;
+    private final SolveResultCache solveResultCache;
+    private final EmployeeAssignmentService employeeAssignmentService;
+    private final SolveScheduler solveScheduler;
+    private final SolveJobTable solveJobTable;
+    private final ScheduleScoreExplainer scheduleScoreExplainer;
 
     private final Logger logger = LoggerFactory.getLogger(ScheduleSolveServiceImpl.class);
 
     @Autowired
-    public ScheduleSolveServiceImpl(ScheduleService scheduleService, SolverManager<SolvedSchedule, UUID> solverManager, TeamService teamService) {
+    public ScheduleSolveServiceImpl(ScheduleService scheduleService, SolverManager<SolvedSchedule, UUID> solverManager, TeamService teamService,
+                                    SolveJobRegistry solveJobRegistry, EmployeeAssignmentRepository employeeAssignmentRepository,
+                                    SolveTerminationPolicy solveTerminationPolicy, SolveResultCache solveResultCache,
+                                    EmployeeAssignmentService employeeAssignmentService, SolveScheduler solveScheduler,
+                                    SolveJobTable solveJobTable, ScheduleScoreExplainer scheduleScoreExplainer) {
         this.scheduleService = scheduleService;
         this.solverManager = solverManager;
         this.teamService = teamService;
+        this.solveJobRegistry = solveJobRegistry;
+        this.employeeAssignmentRepository = employeeAssignmentRepository;
+        this.solveTerminationPolicy = solveTerminationPolicy;
+        this.solveResultCache = solveResultCache;
+        this.employeeAssignmentService = employeeAssignmentService;
+        this.solveScheduler = solveScheduler;
+        this.solveJobTable = solveJobTable;
+        this.scheduleScoreExplainer = scheduleScoreExplainer;
     }
 
     @Override
-    public List<EmployeeAssignment> solveSchedule(long scheduleId, User user) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException {
+    public CompletableFuture<List<EmployeeAssignment>> solveSchedule(long scheduleId, User user, SolveOptions options) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, SolveQueueFullException {
+        return startSolving(scheduleId, user, options).getResult().thenApply(SolvedSchedule::getEmployeeAssignments);
+    }
+
+    @Override
+    public SolveJob startSolving(long scheduleId, User user, SolveOptions options) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, SolveQueueFullException {
+        return startSolving(UUID.randomUUID(), scheduleId, user, options);
+    }
+
+    @Override
+    public SolveJob startSolving(UUID jobId, long scheduleId, User user, SolveOptions options) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, SolveQueueFullException {
+        // a node that cannot take another job does not load the schedule first
+        if (solveJobRegistry.isFull()) {
+            throw getRegistryFull(scheduleId);
+        }
+        // the problem is built on the request thread, while the persistence context is still open - the solver thread only works with loaded entities
+        var problem = buildProblem(scheduleId, user, options.isWarmStart());
+
+        var job = new SolveJob(jobId, scheduleId, user.getId(), solveTerminationPolicy.getTermination(problem, options));
+        if (!solveJobRegistry.register(job)) {
+            throw getRegistryFull(scheduleId);
+        }
+
+        var fingerprint = ProblemFingerprint.of(problem);
+        var cached = solveResultCache.get(fingerprint, job.getTermination());
+        if (cached.isPresent()) {
+            logger.info("Schedule (id={}) has not changed since it was last solved, returning the cached solution (job id={}).", scheduleId, job.getId());
+            job.complete(cached.get());
+            return job;
+        }
+        // only solutions of the problem as it was fingerprinted are cached - not cancelled ones or ones that include edits made while solving
+        job.getResult().thenAccept(solution -> {
+            if (job.getStatus() == SolveJobStatus.COMPLETED && !job.isProblemChanged()) {
+                solveResultCache.put(fingerprint, job.getTermination(), solution);
+            }
+        });
+
+        try {
+            solveScheduler.submit(job, () -> job.setSolverJob(solverManager.solveAndListen(job.getId(), jobId -> {
+                job.start();
+                return problem;
+            }, job::improve, job::complete, (jobId, throwable) -> {
+                logger.error("solving failed (job id={})", jobId, throwable);
+                job.fail(throwable);
+            })));
+        } catch (SolveQueueFullException e) {
+            logger.warn(e.getMessage());
+            solveJobRegistry.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    @Override
+    public SolveJobResponse submitSolveJob(long scheduleId, User user, SolveOptions options) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, SolveQueueFullException {
+        if (!solveJobTable.isEnabled()) {
+            return startSolving(scheduleId, user, options).toResponse();
+        }
+        // permissions are checked right away, whether the schedule can be solved is only known once a worker builds the problem
+        scheduleService.getSchedule(scheduleId, user);
+        return solveJobTable.toResponse(solveJobTable.add(scheduleId, user.getId(), options));
+    }
+
+    @Override
+    public SolveJob getSolveJob(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException {
+        return findLocalSolveJob(scheduleId, jobId, user).orElseThrow(() -> getSolveJobNotFound(scheduleId, jobId));
+    }
+
+    @Override
+    public SolveJobResponse getSolveJobState(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException {
+        var job = findLocalSolveJob(scheduleId, jobId, user);
+        if (job.isPresent()) {
+            return job.get().toResponse();
+        }
+        return solveJobTable.toResponse(getTableSolveJob(scheduleId, jobId, user));
+    }
+
+    @Override
+    public Flux<SolveJobResponse> getSolveJobUpdates(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException {
+        var job = findLocalSolveJob(scheduleId, jobId, user);
+        if (job.isPresent()) {
+            return job.get().getUpdates();
+        }
+        return solveJobTable.getUpdates(getTableSolveJob(scheduleId, jobId, user));
+    }
+
+    @Override
+    public void cancelSolveJob(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException {
+        var job = findLocalSolveJob(scheduleId, jobId, user);
+        if (job.isEmpty()) {
+            solveJobTable.cancel(getTableSolveJob(scheduleId, jobId, user));
+        } else if (!solveScheduler.cancelQueued(job.get())) {
+            job.get().cancel();
+        }
+    }
+
+    @Override
+    public void applySolveJob(long scheduleId, UUID jobId, User user) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException, DateRangeException {
+        var localJob = findLocalSolveJob(scheduleId, jobId, user);
+        if (localJob.isEmpty()) {
+            // the job was solved on another node, its solution is in the job table
+            var tableJob = getTableSolveJob(scheduleId, jobId, user);
+            if (!tableJob.isFinished() || tableJob.getStatus() == SolveJobStatus.FAILED || tableJob.getAssignments() == null) {
+                var error = "Solve job (id=%s) cannot be applied - its status is %s.".formatted(jobId, tableJob.getStatus());
+                logger.warn(error);
+                throw new ScheduleUnsolvableException(error);
+            }
+            employeeAssignmentService.putAll(solveJobTable.getAssignments(tableJob), scheduleId, user);
+            return;
+        }
+        var job = localJob.get();
+        var status = job.getStatus();
+        // cancelled jobs keep the best solution found until then, it can be saved just like a completed one
+        if (!job.isFinished() || status == SolveJobStatus.FAILED || job.getBestSolution() == null) {
+            var error = "Solve job (id=%s) cannot be applied - its status is %s.".formatted(jobId, status);
+            logger.warn(error);
+            throw new ScheduleUnsolvableException(error);
+        }
+        employeeAssignmentService.replaceAll(job.getBestSolution().getEmployeeAssignments(), scheduleId, user);
+    }
+
+    @Override
+    public ScoreExplanationResponse explainScore(long scheduleId, User user) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException {
+        return scheduleScoreExplainer.explain(buildExplanationProblem(scheduleId, user));
+    }
+
+    private Optional<SolveJob> findLocalSolveJob(long scheduleId, UUID jobId, User user) {
+        return solveJobRegistry.get(jobId).filter(job -> job.getScheduleId() == scheduleId && job.getOwnerId() == user.getId());
+    }
+
+    private ScheduleSolveJob getTableSolveJob(long scheduleId, UUID jobId, User user) throws ResourceNotFoundException {
+        if (!solveJobTable.isEnabled()) {
+            throw getSolveJobNotFound(scheduleId, jobId);
+        }
+        return solveJobTable.find(scheduleId, jobId, user.getId()).orElseThrow(() -> getSolveJobNotFound(scheduleId, jobId));
+    }
+
+    private SolveQueueFullException getRegistryFull(long scheduleId) {
+        var error = "Schedule (id=%d) cannot be solved right now - too many schedules are being solved, please try again later.".formatted(scheduleId);
+        logger.warn(error);
+        return new SolveQueueFullException(error, solveScheduler.getRetryAfter());
+    }
+
+    private ResourceNotFoundException getSolveJobNotFound(long scheduleId, UUID jobId) {
+        var error = "Solve job (id=%s) does not exist for schedule (id=%d).".formatted(jobId, scheduleId);
+        logger.warn(error);
+        return new ResourceNotFoundException(error);
+    }
+
+    private SolvedSchedule buildProblem(long scheduleId, User user, boolean warmStart) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException {
         var schedule = scheduleService.getSchedule(scheduleId, user);
         var shifts = schedule.getShifts();
 
@@ -57,34 +236,98 @@ public class ScheduleSolveServiceImpl implements ScheduleSolveService {
         }
 
         var employees = members.stream().filter(member -> availableEmployeeIds.contains(member.getMember().getId())).map(TeamMember::getMember).collect(Collectors.toList());
-        var employeeAssignments = getEmployeeAssignments(shifts);
+
+        // problem changes edit the shifts and availabilities of the working solution, so the solver gets detached copies instead of managed entities
+        var workingShifts = new ArrayList<ScheduleShift>(shifts.size());
+        var availabilities = new ArrayList<EmployeeAvailability>();
+        for (var shift : shifts) {
+            var workingShift = new ScheduleShift(shift.getShiftStart(), shift.getShiftEnd(), schedule, shift.getNumberOfRequiredEmployees());
+            workingShift.setId(shift.getId());
+            workingShifts.add(workingShift);
+            for (var availability : shift.getEmployeeAvailabilities()) {
+                var workingAvailability = new EmployeeAvailability(availability.getEmployee(), workingShift,
+                        availability.getAvailabilityStart(), availability.getAvailabilityEnd(), availability.getMaxHoursPerShift());
+                workingAvailability.setId(availability.getId());
+                availabilities.add(workingAvailability);
+            }
+        }
+        var employeeAssignments = getEmployeeAssignments(workingShifts, employees, employeeAssignmentRepository.getAllByShiftSchedule(schedule), warmStart);
 
         // shuffle to avoid bias for the order of employees..
-        Collections.shuffle(shifts);
+        Collections.shuffle(workingShifts);
         Collections.shuffle(employees);
 
-        var job = solverManager.solve(UUID.randomUUID(), new SolvedSchedule(scheduleId, shifts, employees, employeeAssignments));
+        return new SolvedSchedule(scheduleId, new ScheduleLimits(schedule), workingShifts, availabilities, employees, employeeAssignments);
+    }
 
-        SolvedSchedule solution;
-        try {
-            solution = job.getFinalBestSolution();
-        } catch (InterruptedException | ExecutionException e) {
-            logger.error("solving failed", e);
-            throw new ScheduleUnsolvableException("Solving failed due to %s.".formatted(e.getMessage()));
+    /**
+     * Builds the problem of the saved assignments exactly as they are stored - unlike a warm start, assignments of employees without availabilities
+     * are kept and shifts are neither truncated to nor padded up to their required employees, so the explained score is the one of the saved schedule.
+     */
+    private SolvedSchedule buildExplanationProblem(long scheduleId, User user) throws ForbiddenException, ResourceNotFoundException, ScheduleUnsolvableException {
+        var schedule = scheduleService.getSchedule(scheduleId, user);
+        var shifts = schedule.getShifts();
+
+        if (shifts.size() == 0) {
+            logger.warn("Schedule cannot be solved - it does not have any shifts assigned to it!");
+            throw new ScheduleUnsolvableException("Schedule cannot be solved - it does not have any shifts assigned to it!");
         }
 
-        return solution.getEmployeeAssignments();
+        var employeesById = new LinkedHashMap<Long, User>();
+        teamService.getTeamMembers(schedule.getTeam().getId(), user).forEach(member -> employeesById.put(member.getMember().getId(), member.getMember()));
+        var shiftsById = shifts.stream().collect(Collectors.toMap(ScheduleShift::getId, Function.identity()));
+
+        var employeeAssignments = new ArrayList<EmployeeAssignment>();
+        for (var savedAssignment : employeeAssignmentRepository.getAllByShiftSchedule(schedule)) {
+            // employees may have been removed from the team since they were assigned, their assignments are still part of the schedule
+            var employee = employeesById.computeIfAbsent(savedAssignment.getEmployee().getId(), id -> savedAssignment.getEmployee());
+            var shift = shiftsById.get(savedAssignment.getShift().getId());
+            var assignment = new EmployeeAssignment(employee, shift, savedAssignment.getAssignmentStart(), savedAssignment.getAssignmentEnd(), savedAssignment.isLocked());
+            assignment.setPlanningId((long) employeeAssignments.size());
+            employeeAssignments.add(assignment);
+        }
+
+        return new SolvedSchedule(scheduleId, new ScheduleLimits(schedule), shifts, new ArrayList<>(employeesById.values()), employeeAssignments);
     }
 
-    private List<EmployeeAssignment> getEmployeeAssignments(List<ScheduleShift> shifts) {
+    /**
+     * Builds the planning entities - one per required employee of every shift. Locked assignments are always part of the problem and stay pinned,
+     * even if there are more of them than the shift requires. With warm start, the remaining slots are seeded with the other saved assignments,
+     * which are initialized, so the construction heuristic skips them and local search starts improving on the saved solution right away.
+     * Saved assignments are copied - the solver must not modify managed entities. Every planning entity gets a sequential planning id.
+     */
+    private List<EmployeeAssignment> getEmployeeAssignments(List<ScheduleShift> shifts, List<User> employees, List<EmployeeAssignment> savedAssignments, boolean warmStart) {
+        var employeesById = employees.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        var savedAssignmentsByShiftId = savedAssignments.stream()
+                .filter(assignment -> warmStart || assignment.isLocked())
+                .sorted(Comparator.comparing(EmployeeAssignment::isLocked).reversed())
+                .collect(Collectors.groupingBy(assignment -> assignment.getShift().getId()));
+
         var assignments = new ArrayList<EmployeeAssignment>();
         for (var shift : shifts) {
-            for (int i = 0; i < shift.getNumberOfRequiredEmployees(); i++) {
+            var saved = savedAssignmentsByShiftId.getOrDefault(shift.getId(), List.of());
+            int slots = 0;
+            for (var savedAssignment : saved) {
+                if (savedAssignment.isLocked()) {
+                    // pinned employees do not need to be in the value range, the solver never changes them
+                    var employee = employeesById.getOrDefault(savedAssignment.getEmployee().getId(), savedAssignment.getEmployee());
+                    assignments.add(new EmployeeAssignment(employee, shift, savedAssignment.getAssignmentStart(), savedAssignment.getAssignmentEnd(), true));
+                } else if (slots < shift.getNumberOfRequiredEmployees()) {
+                    // employees that are no longer available are left unassigned, the solver has to find someone else
+                    var employee = employeesById.get(savedAssignment.getEmployee().getId());
+                    assignments.add(new EmployeeAssignment(employee, shift, savedAssignment.getAssignmentStart(), savedAssignment.getAssignmentEnd()));
+                } else {
+                    continue;
+                }
+                slots++;
+            }
+            for (; slots < shift.getNumberOfRequiredEmployees(); slots++) {
                 assignments.add(new EmployeeAssignment(null, shift, shift.getShiftStart(), shift.getShiftEnd()));
             }
-
+        }
+        for (int i = 0; i < assignments.size(); i++) {
+            assignments.get(i).setPlanningId((long) i);
         }
         return assignments;
     }
 }
-
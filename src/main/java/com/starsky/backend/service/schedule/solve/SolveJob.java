@@ -0,0 +1,233 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.api.exception.ScheduleUnsolvableException;
+import com.starsky.backend.api.exception.SolveJobCancelledException;
+import com.starsky.backend.api.schedule.assignment.EmployeeAssignmentResponse;
+import com.starsky.backend.api.schedule.solve.SolveJobResponse;
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import org.optaplanner.core.api.solver.SolverJob;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A schedule that was handed over to the solver. The job id is also the problem id used by the {@link org.optaplanner.core.api.solver.SolverManager},
+ * so the job can be looked up, polled and terminated without holding on to the request thread that started it.
+ */
+public class SolveJob {
+    private final UUID id;
+    private final long scheduleId;
+    private final long ownerId;
+    private final Instant createdAt;
+    private final SolveTermination termination;
+    private final CompletableFuture<SolvedSchedule> result = new CompletableFuture<>();
+    // only the latest best solution is replayed, a late subscriber does not need the ones that were already improved upon
+    private final Sinks.Many<SolvedSchedule> bestSolutions = Sinks.many().replay().latest();
+    // edits made while the job waits in the queue, they are handed over to the solver once it has the job
+    private final List<ProblemChange<SolvedSchedule>> pendingProblemChanges = new ArrayList<>();
+
+    private volatile SolverJob<SolvedSchedule, UUID> solverJob;
+    private volatile SolvedSchedule bestSolution;
+    private volatile SolveJobStatus finalStatus;
+    private volatile boolean cancelled;
+    private volatile String error;
+    private volatile Instant lastImprovedAt;
+    private volatile Instant startedAt;
+    private volatile boolean terminating;
+    private volatile boolean problemChanged;
+
+    public SolveJob(UUID id, long scheduleId, long ownerId, SolveTermination termination) {
+        this.id = id;
+        this.scheduleId = scheduleId;
+        this.ownerId = ownerId;
+        this.termination = termination;
+        this.createdAt = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public long getScheduleId() {
+        return scheduleId;
+    }
+
+    public long getOwnerId() {
+        return ownerId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public SolvedSchedule getBestSolution() {
+        return bestSolution;
+    }
+
+    public Instant getLastImprovedAt() {
+        return lastImprovedAt;
+    }
+
+    public SolveTermination getTermination() {
+        return termination;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public CompletableFuture<SolvedSchedule> getResult() {
+        return result;
+    }
+
+    public synchronized void setSolverJob(SolverJob<SolvedSchedule, UUID> solverJob) {
+        this.solverJob = solverJob;
+        if (!isFinished()) {
+            pendingProblemChanges.forEach(this::submitProblemChange);
+        }
+        pendingProblemChanges.clear();
+    }
+
+    public SolveJobStatus getStatus() {
+        if (finalStatus != null) {
+            return finalStatus;
+        }
+        if (solverJob != null && solverJob.getSolverStatus() == SolverStatus.SOLVING_ACTIVE) {
+            return SolveJobStatus.SOLVING;
+        }
+        return SolveJobStatus.SCHEDULED;
+    }
+
+    public boolean isFinished() {
+        return finalStatus != null;
+    }
+
+    /**
+     * Hands an edit of the schedule over to the solver, which applies it to its working solution. Jobs that wait in the queue keep the edit
+     * until the solver has them, the problem they were built from does not include it. Finished jobs ignore changes.
+     */
+    public synchronized void addProblemChange(ProblemChange<SolvedSchedule> problemChange) {
+        if (isFinished()) {
+            return;
+        }
+        problemChanged = true;
+        if (solverJob == null) {
+            pendingProblemChanges.add(problemChange);
+        } else {
+            submitProblemChange(problemChange);
+        }
+    }
+
+    private void submitProblemChange(ProblemChange<SolvedSchedule> problemChange) {
+        solverJob.addProblemChange((workingSolution, director) -> {
+            problemChange.doChange(workingSolution, director);
+            // the construction heuristic sorts with the index again for the assignments the change adds
+            workingSolution.invalidateAvailabilityIndex();
+        });
+    }
+
+    /**
+     * Whether the schedule was edited while solving - the solution then no longer solves the problem the job was started with.
+     */
+    public boolean isProblemChanged() {
+        return problemChanged;
+    }
+
+    /**
+     * Asks the solver to stop. The best solution found so far is still handed over through {@link #complete(SolvedSchedule)}.
+     */
+    public void cancel() {
+        cancelled = true;
+        if (solverJob != null) {
+            solverJob.terminateEarly();
+        }
+    }
+
+    /**
+     * Stops solving once the termination of the job is reached. The job completes normally, it is not reported as cancelled.
+     * Jobs that wait in the solver queue are not checked, their time only starts running once the solver picks them up.
+     */
+    public void terminateIfReached(Instant now) {
+        var solvingSince = startedAt;
+        if (solvingSince == null || terminating || solverJob == null || isFinished()) {
+            return;
+        }
+        var best = bestSolution;
+        if (termination.isReached(now, solvingSince, lastImprovedAt, best == null ? null : best.getScore())) {
+            terminating = true;
+            solverJob.terminateEarly();
+        }
+    }
+
+    /**
+     * Called by the solver thread right before it starts solving the job.
+     */
+    void start() {
+        startedAt = Instant.now();
+    }
+
+    /**
+     * Streams every new best solution while solving, followed by the final state of the job once solving has finished.
+     */
+    public Flux<SolveJobResponse> getUpdates() {
+        return bestSolutions.asFlux()
+                .map(solution -> toResponse(SolveJobStatus.SOLVING, solution))
+                .concatWith(Mono.fromSupplier(this::toResponse));
+    }
+
+    synchronized void improve(SolvedSchedule solution) {
+        bestSolution = solution;
+        lastImprovedAt = Instant.now();
+        bestSolutions.tryEmitNext(solution);
+    }
+
+    synchronized void complete(SolvedSchedule solution) {
+        bestSolution = solution;
+        finalStatus = cancelled ? SolveJobStatus.CANCELLED : SolveJobStatus.COMPLETED;
+        bestSolutions.tryEmitComplete();
+        result.complete(solution);
+    }
+
+    /**
+     * Cancels a job that never reached the solver. There is no solution to hand over, so the result completes with a {@link SolveJobCancelledException}.
+     */
+    synchronized void cancelQueued() {
+        cancelled = true;
+        finalStatus = SolveJobStatus.CANCELLED;
+        pendingProblemChanges.clear();
+        bestSolutions.tryEmitComplete();
+        result.completeExceptionally(new SolveJobCancelledException("Solve job (id=%s) was cancelled before solving started.".formatted(id)));
+    }
+
+    synchronized void fail(Throwable throwable) {
+        error = "Solving failed due to %s.".formatted(throwable.getMessage());
+        finalStatus = SolveJobStatus.FAILED;
+        bestSolutions.tryEmitComplete();
+        result.completeExceptionally(new ScheduleUnsolvableException(error));
+    }
+
+    public SolveJobResponse toResponse() {
+        return toResponse(getStatus(), bestSolution);
+    }
+
+    private SolveJobResponse toResponse(SolveJobStatus status, SolvedSchedule solution) {
+        EmployeeAssignmentResponse[] assignments = null;
+        String score = null;
+        if (solution != null) {
+            assignments = solution.getEmployeeAssignments().stream()
+                    .filter(assignment -> assignment.getEmployee() != null)
+                    .map(EmployeeAssignment::toResponse)
+                    .toArray(EmployeeAssignmentResponse[]::new);
+            score = solution.getScore() == null ? null : solution.getScore().toString();
+        }
+        return new SolveJobResponse(id, scheduleId, status.name(), score, error, assignments);
+    }
+}
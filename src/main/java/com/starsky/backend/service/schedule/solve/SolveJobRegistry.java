@@ -0,0 +1,104 @@
+package com.starsky.backend.service.schedule.solve;
+
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps track of solve jobs by their solver problem id. The registry is bounded - once it is full, the oldest finished job is evicted,
+ * and if every tracked job is still running, no new job is accepted.
+ */
+@Component
+public class SolveJobRegistry {
+
+    private final int maxJobs;
+    private final Map<UUID, SolveJob> jobs = new LinkedHashMap<>();
+
+    public SolveJobRegistry(@Value("${starsky.solver.max-jobs:50}") int maxJobs) {
+        this.maxJobs = maxJobs;
+    }
+
+    public synchronized boolean register(SolveJob job) {
+        if (jobs.size() >= maxJobs) {
+            var oldestFinished = jobs.values().stream().filter(SolveJob::isFinished).findFirst();
+            if (oldestFinished.isEmpty()) {
+                return false;
+            }
+            jobs.remove(oldestFinished.get().getId());
+        }
+        jobs.put(job.getId(), job);
+        return true;
+    }
+
+    /**
+     * Whether a new job would be rejected - every tracked job is still running.
+     */
+    public synchronized boolean isFull() {
+        return jobs.size() >= maxJobs && jobs.values().stream().noneMatch(SolveJob::isFinished);
+    }
+
+    public synchronized void remove(UUID jobId) {
+        jobs.remove(jobId);
+    }
+
+    public synchronized Optional<SolveJob> get(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public synchronized List<SolveJob> getActive(long scheduleId) {
+        return jobs.values().stream()
+                .filter(job -> job.getScheduleId() == scheduleId && !job.isFinished())
+                .collect(Collectors.toList());
+    }
+
+    public synchronized List<SolveJob> getActive() {
+        return jobs.values().stream().filter(job -> !job.isFinished()).collect(Collectors.toList());
+    }
+
+    /**
+     * Forwards the change to every job that is still solving the schedule, once the transaction that made the edit has committed.
+     */
+    public void addProblemChange(long scheduleId, ProblemChange<SolvedSchedule> problemChange) {
+        afterCommit(() -> getActive(scheduleId).forEach(job -> job.addProblemChange(problemChange)));
+    }
+
+    /**
+     * Forwards the change to every job of the schedule owner that is still solving, for edits that cannot be tied to a single schedule up front.
+     */
+    public void addProblemChangeForOwner(long ownerId, ProblemChange<SolvedSchedule> problemChange) {
+        afterCommit(() -> {
+            List<SolveJob> active;
+            synchronized (this) {
+                active = jobs.values().stream()
+                        .filter(job -> job.getOwnerId() == ownerId && !job.isFinished())
+                        .collect(Collectors.toList());
+            }
+            active.forEach(job -> job.addProblemChange(problemChange));
+        });
+    }
+
+    /**
+     * Edits that are rolled back must not reach the solver - it would solve, and later save, shifts and availabilities that do not exist.
+     */
+    private void afterCommit(Runnable forward) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forward.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forward.run();
+            }
+        });
+    }
+}
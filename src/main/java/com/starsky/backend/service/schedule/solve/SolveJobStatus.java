@@ -0,0 +1,9 @@
+package com.starsky.backend.service.schedule.solve;
+
+public enum SolveJobStatus {
+    SCHEDULED,
+    SOLVING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
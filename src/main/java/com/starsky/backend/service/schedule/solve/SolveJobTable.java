@@ -0,0 +1,145 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.starsky.backend.api.schedule.assignment.EmployeeAssignmentResponse;
+import com.starsky.backend.api.schedule.assignment.PutEmployeeAssignmentRequest;
+import com.starsky.backend.api.schedule.solve.SolveJobResponse;
+import com.starsky.backend.domain.schedule.ScheduleSolveJob;
+import com.starsky.backend.repository.ScheduleSolveJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import javax.transaction.Transactional;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Solve jobs in the shared job table, used when more than one node solves schedules. The node that accepts a solve request only adds
+ * the job to the table, a {@link SolveWorker} on any node claims it and writes the result back, so every node can report the state of every job.
+ */
+@Component
+public class SolveJobTable {
+    private final ScheduleSolveJobRepository scheduleSolveJobRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration pollInterval;
+
+    private final Logger logger = LoggerFactory.getLogger(SolveJobTable.class);
+
+    public SolveJobTable(ScheduleSolveJobRepository scheduleSolveJobRepository, ObjectMapper objectMapper,
+                         @Value("${starsky.solver.distributed.enabled:false}") boolean enabled,
+                         @Value("${starsky.solver.distributed.poll-interval-ms:1000}") long pollIntervalMs) {
+        this.scheduleSolveJobRepository = scheduleSolveJobRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ScheduleSolveJob add(long scheduleId, long ownerId, SolveOptions options) {
+        var job = new ScheduleSolveJob(UUID.randomUUID(), scheduleId, ownerId, options.isWarmStart(),
+                toMillis(options.getSpentLimit()), toMillis(options.getUnimprovedLimit()));
+        return scheduleSolveJobRepository.save(job);
+    }
+
+    public Optional<ScheduleSolveJob> find(long scheduleId, UUID jobId, long ownerId) {
+        return scheduleSolveJobRepository.findByIdAndScheduleIdAndOwnerId(jobId, scheduleId, ownerId);
+    }
+
+    /**
+     * Jobs that were not claimed yet are cancelled right away, the node that solves a claimed job cancels it with its next heartbeat.
+     */
+    @Transactional
+    public void cancel(ScheduleSolveJob job) {
+        if (scheduleSolveJobRepository.cancelScheduled(job.getId(), SolveJobStatus.CANCELLED, SolveJobStatus.SCHEDULED) == 0) {
+            scheduleSolveJobRepository.requestCancel(job.getId());
+        }
+    }
+
+    /**
+     * Polls the table until the job has finished. The state is only emitted when it changes - workers only write the status while solving,
+     * the score and the assignments are written together with the final status.
+     */
+    public Flux<SolveJobResponse> getUpdates(ScheduleSolveJob job) {
+        return Flux.interval(Duration.ZERO, pollInterval, Schedulers.boundedElastic())
+                .map(tick -> scheduleSolveJobRepository.findById(job.getId()))
+                .takeWhile(Optional::isPresent)
+                .map(Optional::get)
+                .distinctUntilChanged(polled -> polled.getStatus() + "/" + polled.getScore())
+                .takeUntil(ScheduleSolveJob::isFinished)
+                .filter(polled -> polled.getStatus() != SolveJobStatus.SCHEDULED)
+                .map(this::toResponse);
+    }
+
+    public List<PutEmployeeAssignmentRequest> getAssignments(ScheduleSolveJob job) {
+        return Arrays.stream(readAssignments(job))
+                .map(assignment -> new PutEmployeeAssignmentRequest(assignment.getAssignmentStart(), assignment.getAssignmentEnd(),
+                        assignment.getEmployeeId(), assignment.getShiftId(), assignment.isLocked()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes the final state of a solve job that was solved on this node back to the table. The result is dropped if the job was handed over
+     * to another worker in the meantime, that worker's result is the one that counts.
+     */
+    @Transactional
+    public void writeResult(SolveJob solveJob, String workerId) {
+        var response = solveJob.toResponse();
+        if (scheduleSolveJobRepository.writeResult(solveJob.getId(), workerId, solveJob.getStatus(), response.getScore(), response.getError(),
+                writeAssignments(response.getAssignments())) == 0) {
+            logger.warn("Result of solve job (id={}) is dropped, the job is no longer claimed by worker {}.", solveJob.getId(), workerId);
+        }
+    }
+
+    @Transactional
+    public void fail(UUID jobId, String error) {
+        scheduleSolveJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(SolveJobStatus.FAILED);
+            job.setError(error);
+        });
+    }
+
+    public SolveJobResponse toResponse(ScheduleSolveJob job) {
+        var assignments = job.getAssignments() == null ? null : readAssignments(job);
+        return new SolveJobResponse(job.getId(), job.getScheduleId(), job.getStatus().name(), job.getScore(), job.getError(), assignments);
+    }
+
+    private EmployeeAssignmentResponse[] readAssignments(ScheduleSolveJob job) {
+        if (job.getAssignments() == null) {
+            return new EmployeeAssignmentResponse[0];
+        }
+        try {
+            return objectMapper.readValue(job.getAssignments(), EmployeeAssignmentResponse[].class);
+        } catch (JsonProcessingException e) {
+            logger.error("Assignments of solve job (id={}) cannot be read.", job.getId(), e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String writeAssignments(EmployeeAssignmentResponse[] assignments) {
+        if (assignments == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(assignments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Long toMillis(Duration duration) {
+        return duration == null ? null : duration.toMillis();
+    }
+}
@@ -0,0 +1,25 @@
+package com.starsky.backend.service.schedule.solve;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Periodically stops solve jobs that reached their {@link SolveTermination}. The solver configuration only keeps the maximum spent limit
+ * as a safety net, the limits that depend on the problem and on the solve call are enforced here.
+ */
+@Component
+public class SolveJobWatchdog {
+    private final SolveJobRegistry solveJobRegistry;
+
+    public SolveJobWatchdog(SolveJobRegistry solveJobRegistry) {
+        this.solveJobRegistry = solveJobRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${starsky.solver.termination.check-interval-ms:100}")
+    public void terminateReachedJobs() {
+        var now = Instant.now();
+        solveJobRegistry.getActive().forEach(job -> job.terminateIfReached(now));
+    }
+}
@@ -0,0 +1,34 @@
+package com.starsky.backend.service.schedule.solve;
+
+import java.time.Duration;
+
+/**
+ * Options of a single solve call. Termination limits that are not set fall back to the limits of the deployment.
+ */
+public class SolveOptions {
+    private final boolean warmStart;
+    private final Duration spentLimit;
+    private final Duration unimprovedLimit;
+
+    public SolveOptions(boolean warmStart) {
+        this(warmStart, null, null);
+    }
+
+    public SolveOptions(boolean warmStart, Duration spentLimit, Duration unimprovedLimit) {
+        this.warmStart = warmStart;
+        this.spentLimit = spentLimit;
+        this.unimprovedLimit = unimprovedLimit;
+    }
+
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    public Duration getSpentLimit() {
+        return spentLimit;
+    }
+
+    public Duration getUnimprovedLimit() {
+        return unimprovedLimit;
+    }
+}
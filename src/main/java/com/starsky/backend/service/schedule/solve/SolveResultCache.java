@@ -0,0 +1,38 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.cache.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Best solutions of completed solve jobs by the {@link ProblemFingerprint} of their problem. Solving an unchanged schedule again
+ * returns the cached solution right away. There is no need to evict entries when a schedule is edited - the edit changes the fingerprint,
+ * and the stale entry expires or gets evicted as the least recently used one.
+ * <p>
+ * Solutions are cached per termination, a solution found within short limits is not returned to a call that asked to solve for longer.
+ * Every job gets its own copy of a cached solution.
+ */
+@Component
+public class SolveResultCache {
+    private final ExpiringCache<String, SolvedSchedule> solutions;
+
+    public SolveResultCache(@Value("${starsky.solver.result-cache.max-size:100}") int maxSize,
+                            @Value("${starsky.solver.result-cache.time-to-live:1h}") Duration timeToLive) {
+        this.solutions = new ExpiringCache<>(maxSize, timeToLive);
+    }
+
+    public Optional<SolvedSchedule> get(String fingerprint, SolveTermination termination) {
+        return solutions.get(getKey(fingerprint, termination)).map(SolvedSchedule::copy);
+    }
+
+    public void put(String fingerprint, SolveTermination termination, SolvedSchedule solution) {
+        solutions.put(getKey(fingerprint, termination), solution.copy());
+    }
+
+    private static String getKey(String fingerprint, SolveTermination termination) {
+        return "%s/%s/%s/%s".formatted(fingerprint, termination.getSpentLimit(), termination.getUnimprovedLimit(), termination.getFeasibleUnimprovedLimit());
+    }
+}
@@ -0,0 +1,218 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.api.exception.SolveQueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admission control in front of the {@link org.optaplanner.core.api.solver.SolverManager}. At most maxRunning solve jobs are handed over to the
+ * solver at once, and every owner (manager) can run at most maxRunningPerOwner of them. Jobs above the caps wait in a queue per owner - jobs
+ * of a single owner start in the order they were submitted, and owners take turns, so a manager that starts a lot of jobs at once does not
+ * hold back the jobs of other managers.
+ * <p>
+ * The queue is bounded in total and per owner. A job that does not fit is rejected with a {@link SolveQueueFullException}, which tells the
+ * client how long to wait before trying again.
+ */
+public class SolveScheduler {
+    // used for the retry estimate until the first job has finished
+    private static final Duration INITIAL_SOLVE_DURATION = Duration.ofSeconds(10);
+    // weight of the last finished job in the average solve duration
+    private static final double SOLVE_DURATION_SMOOTHING = 0.2;
+
+    private final int maxRunning;
+    private final int maxRunningPerOwner;
+    private final int maxQueued;
+    private final int maxQueuedPerOwner;
+
+    // owners with queued jobs, in the order in which they take turns
+    private final LinkedHashMap<Long, Deque<QueuedJob>> queues = new LinkedHashMap<>();
+    private final Map<Long, Integer> runningByOwner = new HashMap<>();
+    private int running;
+    private int queued;
+    private double averageSolveSeconds = INITIAL_SOLVE_DURATION.toSeconds();
+
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    private final Logger logger = LoggerFactory.getLogger(SolveScheduler.class);
+
+    public SolveScheduler(int maxRunning, int maxRunningPerOwner, int maxQueued, int maxQueuedPerOwner, MeterRegistry meterRegistry) {
+        this.maxRunning = Math.max(1, maxRunning);
+        this.maxRunningPerOwner = Math.max(1, Math.min(maxRunningPerOwner, this.maxRunning));
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxQueuedPerOwner = Math.max(0, maxQueuedPerOwner);
+
+        meterRegistry.gauge("starsky.solver.jobs.queued", this, SolveScheduler::getQueued);
+        meterRegistry.gauge("starsky.solver.jobs.running", this, SolveScheduler::getRunning);
+        this.queueWait = Timer.builder("starsky.solver.jobs.queue-wait")
+                .description("Time solve jobs waited in the queue before they were handed over to the solver")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("starsky.solver.jobs.rejected")
+                .description("Solve jobs rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the job right away if there is a free slot for it, otherwise queues it. The slot is released once the result of the job completes.
+     *
+     * @param start hands the job over to the solver, called at most once - on the calling thread or on the thread of a job that released its slot
+     */
+    public void submit(SolveJob job, Runnable start) throws SolveQueueFullException {
+        synchronized (this) {
+            // queued jobs are only ever waiting for a slot of their owner or for a free slot, so a job that can start does not overtake anyone
+            if (canStart(job.getOwnerId())) {
+                markRunning(job.getOwnerId());
+            } else {
+                var ownerQueue = queues.get(job.getOwnerId());
+                int ownerQueued = ownerQueue == null ? 0 : ownerQueue.size();
+                if (queued >= maxQueued || ownerQueued >= maxQueuedPerOwner) {
+                    rejected.increment();
+                    throw new SolveQueueFullException("Schedule (id=%d) cannot be solved right now - too many schedules are waiting to be solved, please try again later."
+                            .formatted(job.getScheduleId()), getRetryAfter(ownerQueued));
+                }
+                queues.computeIfAbsent(job.getOwnerId(), ownerId -> new ArrayDeque<>()).addLast(new QueuedJob(job, start, Instant.now()));
+                queued++;
+                logger.info("Solve job (id={}) is queued, {} job(s) are waiting.", job.getId(), queued);
+                return;
+            }
+        }
+        run(job, start, Duration.ZERO);
+    }
+
+    /**
+     * Removes a job that is still waiting from the queue. Returns false if the job is not queued - it was already handed over to the solver.
+     */
+    public boolean cancelQueued(SolveJob job) {
+        synchronized (this) {
+            var ownerQueue = queues.get(job.getOwnerId());
+            if (ownerQueue == null || !ownerQueue.removeIf(queuedJob -> queuedJob.job == job)) {
+                return false;
+            }
+            queued--;
+            if (ownerQueue.isEmpty()) {
+                queues.remove(job.getOwnerId());
+            }
+        }
+        job.cancelQueued();
+        return true;
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * Number of jobs that could still be handed over to the solver right away, if they do not hit the limit of their owner.
+     */
+    public synchronized int getFreeSlots() {
+        return Math.max(0, maxRunning - running - queued);
+    }
+
+    private void run(SolveJob job, Runnable start, Duration waited) {
+        queueWait.record(waited);
+        var startedAt = Instant.now();
+        job.getResult().whenComplete((solution, throwable) -> release(job.getOwnerId(), Duration.between(startedAt, Instant.now())));
+        try {
+            start.run();
+        } catch (RuntimeException e) {
+            logger.error("Solve job (id={}) could not be started.", job.getId(), e);
+            job.fail(e);
+        }
+    }
+
+    private void startQueued(QueuedJob queuedJob) {
+        run(queuedJob.job, queuedJob.start, Duration.between(queuedJob.queuedAt, Instant.now()));
+    }
+
+    private void release(long ownerId, Duration solveDuration) {
+        List<QueuedJob> next;
+        synchronized (this) {
+            running--;
+            runningByOwner.computeIfPresent(ownerId, (id, count) -> count > 1 ? count - 1 : null);
+            averageSolveSeconds += SOLVE_DURATION_SMOOTHING * (solveDuration.toMillis() / 1000.0 - averageSolveSeconds);
+            next = startNext();
+        }
+        next.forEach(this::startQueued);
+    }
+
+    /**
+     * Takes the jobs that can start now off the queue, one owner after the other. An owner that got a slot goes to the back of the line.
+     */
+    private List<QueuedJob> startNext() {
+        var next = new ArrayList<QueuedJob>();
+        boolean started = true;
+        while (started && running < maxRunning && !queues.isEmpty()) {
+            started = false;
+            for (var ownerId : new ArrayList<>(queues.keySet())) {
+                if (running >= maxRunning) {
+                    break;
+                }
+                if (!canStart(ownerId)) {
+                    continue;
+                }
+                var ownerQueue = queues.remove(ownerId);
+                next.add(ownerQueue.removeFirst());
+                queued--;
+                markRunning(ownerId);
+                started = true;
+                if (!ownerQueue.isEmpty()) {
+                    queues.put(ownerId, ownerQueue);
+                }
+            }
+        }
+        return next;
+    }
+
+    private boolean canStart(long ownerId) {
+        return running < maxRunning && runningByOwner.getOrDefault(ownerId, 0) < maxRunningPerOwner;
+    }
+
+    private void markRunning(long ownerId) {
+        running++;
+        runningByOwner.merge(ownerId, 1, Integer::sum);
+    }
+
+    /**
+     * A rough estimate of when a new job could start on this node, for clients that are turned away before their job is queued.
+     */
+    public synchronized Duration getRetryAfter() {
+        return getRetryAfter(0);
+    }
+
+    /**
+     * A rough estimate of when the owner's next job could start - once the jobs ahead of it have been solved at the average solve duration.
+     */
+    private Duration getRetryAfter(int ownerQueued) {
+        double rounds = Math.max((double) queued / maxRunning, (double) ownerQueued / maxRunningPerOwner) + 1;
+        return Duration.ofSeconds(Math.max(1, (long) Math.ceil(rounds * averageSolveSeconds)));
+    }
+
+    private static class QueuedJob {
+        private final SolveJob job;
+        private final Runnable start;
+        private final Instant queuedAt;
+
+        private QueuedJob(SolveJob job, Runnable start, Instant queuedAt) {
+            this.job = job;
+            this.start = start;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.starsky.backend.service.schedule.solve;
+
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * When a solve job should stop - whichever limit is reached first:
+ * <ul>
+ *     <li>the job has been solving for the spent limit,</li>
+ *     <li>the best solution has not improved for the unimproved limit,</li>
+ *     <li>the best solution breaks no hard constraints and has not improved for the (shorter) feasible unimproved limit.</li>
+ * </ul>
+ */
+public class SolveTermination {
+    private final Duration spentLimit;
+    private final Duration unimprovedLimit;
+    private final Duration feasibleUnimprovedLimit;
+
+    public SolveTermination(Duration spentLimit, Duration unimprovedLimit, Duration feasibleUnimprovedLimit) {
+        this.spentLimit = spentLimit;
+        this.unimprovedLimit = unimprovedLimit;
+        this.feasibleUnimprovedLimit = feasibleUnimprovedLimit;
+    }
+
+    public Duration getSpentLimit() {
+        return spentLimit;
+    }
+
+    public Duration getUnimprovedLimit() {
+        return unimprovedLimit;
+    }
+
+    public Duration getFeasibleUnimprovedLimit() {
+        return feasibleUnimprovedLimit;
+    }
+
+    /**
+     * @param startedAt      when the solver started working on the job
+     * @param lastImprovedAt when the last best solution was found, null if none was found yet
+     * @param bestScore      score of the best solution, null if none was found yet
+     */
+    public boolean isReached(Instant now, Instant startedAt, Instant lastImprovedAt, HardSoftScore bestScore) {
+        if (Duration.between(startedAt, now).compareTo(spentLimit) >= 0) {
+            return true;
+        }
+
+        var unimproved = Duration.between(lastImprovedAt == null ? startedAt : lastImprovedAt, now);
+        if (unimproved.compareTo(unimprovedLimit) >= 0) {
+            return true;
+        }
+        // hard constraints are only ever penalized, so a zero hard score cannot get any better - only soft score gains are left to wait for
+        return bestScore != null && bestScore.isSolutionInitialized() && bestScore.getHardScore() == 0
+                && unimproved.compareTo(feasibleUnimprovedLimit) >= 0;
+    }
+}
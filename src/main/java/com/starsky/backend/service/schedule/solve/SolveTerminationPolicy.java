@@ -0,0 +1,51 @@
+package com.starsky.backend.service.schedule.solve;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Derives the termination of a solve job from the deployment limits, the size of the problem and the options of the solve call.
+ * The spent limit grows with the number of employee assignments, so a small roster is not given as much time as a large one.
+ * Limits of a solve call can lower or raise the deployment limits, but never above the maximum spent limit.
+ */
+@Component
+public class SolveTerminationPolicy {
+    private final Duration unimprovedLimit;
+    private final Duration feasibleUnimprovedLimit;
+    private final Duration minSpentLimit;
+    private final Duration spentLimitPerAssignment;
+    private final Duration maxSpentLimit;
+
+    public SolveTerminationPolicy(@Value("${starsky.solver.termination.unimproved-limit:2s}") Duration unimprovedLimit,
+                                  @Value("${starsky.solver.termination.feasible-unimproved-limit:300ms}") Duration feasibleUnimprovedLimit,
+                                  @Value("${starsky.solver.termination.min-spent-limit:1s}") Duration minSpentLimit,
+                                  @Value("${starsky.solver.termination.spent-limit-per-assignment:20ms}") Duration spentLimitPerAssignment,
+                                  @Value("${starsky.solver.termination.max-spent-limit:60s}") Duration maxSpentLimit) {
+        this.unimprovedLimit = unimprovedLimit;
+        this.feasibleUnimprovedLimit = feasibleUnimprovedLimit;
+        this.minSpentLimit = minSpentLimit;
+        this.spentLimitPerAssignment = spentLimitPerAssignment;
+        this.maxSpentLimit = maxSpentLimit;
+    }
+
+    public SolveTermination getTermination(SolvedSchedule problem, SolveOptions options) {
+        var spentLimit = options.getSpentLimit() != null
+                ? options.getSpentLimit()
+                : minSpentLimit.plus(spentLimitPerAssignment.multipliedBy(problem.getEmployeeAssignments().size()));
+        spentLimit = min(spentLimit, maxSpentLimit);
+
+        if (options.getUnimprovedLimit() != null) {
+            // the caller decided how long to wait for improvements, feasible solutions are not cut short either
+            var unimproved = min(options.getUnimprovedLimit(), maxSpentLimit);
+            return new SolveTermination(spentLimit, unimproved, unimproved);
+        }
+        // the feasible limit is a shortcut of the unimproved limit, it never waits longer
+        return new SolveTermination(spentLimit, unimprovedLimit, min(feasibleUnimprovedLimit, unimprovedLimit));
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,178 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.api.exception.SolveQueueFullException;
+import com.starsky.backend.domain.schedule.ScheduleSolveJob;
+import com.starsky.backend.repository.ScheduleSolveJobRepository;
+import com.starsky.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Solves jobs of the shared job table on this node. Scheduled jobs are claimed with {@code select ... for update skip locked}, so nodes
+ * never claim the same job, and only as many of them as the local {@link SolveScheduler} can start right away. While a job is being solved,
+ * the node keeps its heartbeat up to date - jobs whose heartbeat is older than stale-after are taken from their node (which most likely died)
+ * and put back into the queue, at most max-attempts times.
+ */
+@Component
+@ConditionalOnProperty(value = "starsky.solver.distributed.enabled", havingValue = "true")
+public class SolveWorker {
+    private final ScheduleSolveJobRepository scheduleSolveJobRepository;
+    private final UserRepository userRepository;
+    private final ScheduleSolveService scheduleSolveService;
+    private final SolveJobRegistry solveJobRegistry;
+    private final SolveScheduler solveScheduler;
+    private final SolveJobTable solveJobTable;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration staleAfter;
+    private final int maxAttempts;
+    private final String workerId;
+    // jobs of the table that this node is solving
+    private final Set<UUID> claimed = ConcurrentHashMap.newKeySet();
+
+    private final Logger logger = LoggerFactory.getLogger(SolveWorker.class);
+
+    public SolveWorker(ScheduleSolveJobRepository scheduleSolveJobRepository, UserRepository userRepository, ScheduleSolveService scheduleSolveService,
+                       SolveJobRegistry solveJobRegistry, SolveScheduler solveScheduler, SolveJobTable solveJobTable, TransactionTemplate transactionTemplate,
+                       @Value("${starsky.solver.distributed.stale-after:30s}") Duration staleAfter,
+                       @Value("${starsky.solver.distributed.max-attempts:3}") int maxAttempts) {
+        this.scheduleSolveJobRepository = scheduleSolveJobRepository;
+        this.userRepository = userRepository;
+        this.scheduleSolveService = scheduleSolveService;
+        this.solveJobRegistry = solveJobRegistry;
+        this.solveScheduler = solveScheduler;
+        this.solveJobTable = solveJobTable;
+        this.transactionTemplate = transactionTemplate;
+        this.staleAfter = staleAfter;
+        this.maxAttempts = maxAttempts;
+        this.workerId = getHostName() + "/" + UUID.randomUUID();
+        logger.info("Solving jobs of the shared job table as worker {}.", workerId);
+    }
+
+    @Scheduled(fixedDelayString = "${starsky.solver.distributed.poll-interval-ms:1000}")
+    public void claimJobs() {
+        int free = solveScheduler.getFreeSlots();
+        if (free == 0) {
+            return;
+        }
+        var now = Instant.now();
+        List<ScheduleSolveJob> jobs = transactionTemplate.execute(status -> {
+            var locked = scheduleSolveJobRepository.lockScheduled(free);
+            for (var job : locked) {
+                job.setStatus(SolveJobStatus.SOLVING);
+                job.setWorkerId(workerId);
+                job.setHeartbeatAt(now);
+                job.setAttempts(job.getAttempts() + 1);
+            }
+            return locked;
+        });
+        if (jobs != null) {
+            jobs.forEach(this::solve);
+        }
+    }
+
+    /**
+     * Keeps the heartbeat of the claimed jobs up to date, cancels the ones that were cancelled on another node and recovers stale jobs of dead nodes.
+     */
+    @Scheduled(fixedDelayString = "${starsky.solver.distributed.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        var now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!claimed.isEmpty()) {
+                scheduleSolveJobRepository.updateHeartbeat(workerId, Set.copyOf(claimed), SolveJobStatus.SOLVING, now);
+            }
+            var staleBefore = now.minus(staleAfter);
+            int requeued = scheduleSolveJobRepository.requeueStale(staleBefore, maxAttempts, SolveJobStatus.SCHEDULED, SolveJobStatus.SOLVING);
+            int failed = scheduleSolveJobRepository.failStale(staleBefore, maxAttempts,
+                    "Solving failed due to the solving node stopping %d times.".formatted(maxAttempts), SolveJobStatus.FAILED, SolveJobStatus.SOLVING);
+            if (requeued > 0 || failed > 0) {
+                logger.warn("Recovered solve jobs of stopped nodes - {} requeued, {} failed.", requeued, failed);
+            }
+        });
+
+        for (var job : scheduleSolveJobRepository.findAllByWorkerIdAndStatusAndCancelRequested(workerId, SolveJobStatus.SOLVING, true)) {
+            solveJobRegistry.get(job.getId()).ifPresent(solveJob -> {
+                if (!solveScheduler.cancelQueued(solveJob)) {
+                    solveJob.cancel();
+                }
+            });
+        }
+    }
+
+    private void solve(ScheduleSolveJob job) {
+        var options = new SolveOptions(job.isWarmStart(), toDuration(job.getSpentLimitMs()), toDuration(job.getUnimprovedLimitMs()));
+        claimed.add(job.getId());
+        try {
+            // the problem is built from lazily loaded entities, the transaction keeps the persistence context open until it is built
+            var solveJob = transactionTemplate.execute(status -> {
+                var owner = userRepository.findById(job.getOwnerId()).orElseThrow(() ->
+                        new IllegalStateException("Owner (user id=%d) does not exist.".formatted(job.getOwnerId())));
+                try {
+                    return scheduleSolveService.startSolving(job.getId(), job.getScheduleId(), owner, options);
+                } catch (Exception e) {
+                    throw new SolveStartException(e);
+                }
+            });
+            solveJob.getResult().whenComplete((solution, throwable) -> {
+                solveJobTable.writeResult(solveJob, workerId);
+                claimed.remove(job.getId());
+            });
+        } catch (SolveStartException e) {
+            claimed.remove(job.getId());
+            if (e.getCause() instanceof SolveQueueFullException) {
+                // the owner already solves as many schedules as they may on this node, another node or a later poll can take the job
+                requeue(job);
+                return;
+            }
+            logger.warn("Solve job (id={}) could not be started: {}", job.getId(), e.getCause().getMessage());
+            solveJobTable.fail(job.getId(), "Solving failed due to %s".formatted(e.getCause().getMessage()));
+        } catch (RuntimeException e) {
+            claimed.remove(job.getId());
+            logger.error("Solve job (id={}) could not be started.", job.getId(), e);
+            solveJobTable.fail(job.getId(), "Solving failed due to %s".formatted(e.getMessage()));
+        }
+    }
+
+    private void requeue(ScheduleSolveJob job) {
+        transactionTemplate.executeWithoutResult(status -> scheduleSolveJobRepository.findById(job.getId()).ifPresent(requeued -> {
+            requeued.setStatus(SolveJobStatus.SCHEDULED);
+            requeued.setWorkerId(null);
+            requeued.setHeartbeatAt(null);
+            requeued.setAttempts(requeued.getAttempts() - 1);
+        }));
+    }
+
+    private static Duration toDuration(Long milliseconds) {
+        return milliseconds == null ? null : Duration.ofMillis(milliseconds);
+    }
+
+    private static String getHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Carries the checked exceptions of starting a solve job out of the transaction callback.
+     */
+    private static class SolveStartException extends RuntimeException {
+        private SolveStartException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty
 import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
+import org.optaplanner.core.api.domain.solution.ProblemFactProperty;
 import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 
@@ -18,6 +19,9 @@ import java.util.stream.Collectors;
 public class SolvedSchedule {
     private long scheduleId;
 
+    @ProblemFactProperty
+    private ScheduleLimits limits;
+
     @ProblemFactCollectionProperty
     private List<ScheduleShift> shifts;
 
@@ -34,12 +38,23 @@ public class SolvedSchedule {
     @PlanningScore
     private HardSoftScore score;
 
-    public SolvedSchedule(long scheduleId, List<ScheduleShift> shifts, List<User> employees, List<EmployeeAssignment> employeeAssignments) {
+    // built on first use, clones share it until a problem change invalidates it
+    private AvailabilityIndex availabilityIndex;
+
+    public SolvedSchedule(long scheduleId, ScheduleLimits limits, List<ScheduleShift> shifts, List<User> employees, List<EmployeeAssignment> employeeAssignments) {
+        this(scheduleId, limits, shifts,
+                shifts.stream().flatMap(scheduleShift -> scheduleShift.getEmployeeAvailabilities().stream()).collect(Collectors.toList()),
+                employees, employeeAssignments);
+    }
+
+    public SolvedSchedule(long scheduleId, ScheduleLimits limits, List<ScheduleShift> shifts, List<EmployeeAvailability> availabilities,
+                          List<User> employees, List<EmployeeAssignment> employeeAssignments) {
         this.scheduleId = scheduleId;
+        this.limits = limits;
         this.shifts = shifts;
+        this.availabilities = availabilities;
         this.employees = employees;
         this.employeeAssignments = employeeAssignments;
-        this.availabilities = shifts.stream().flatMap(scheduleShift -> scheduleShift.getEmployeeAvailabilities().stream()).collect(Collectors.toList());
     }
 
     public SolvedSchedule() {
@@ -50,6 +65,10 @@ public class SolvedSchedule {
         return scheduleId;
     }
 
+    public ScheduleLimits getLimits() {
+        return limits;
+    }
+
     public List<ScheduleShift> getShifts() {
         return shifts;
     }
@@ -69,4 +88,30 @@ public class SolvedSchedule {
     public List<EmployeeAvailability> getAvailabilities() {
         return availabilities;
     }
+
+    /**
+     * Copies the solution with new planning entities, the problem facts are shared.
+     */
+    public SolvedSchedule copy() {
+        var assignments = employeeAssignments.stream().map(assignment -> {
+            var copy = new EmployeeAssignment(assignment.getEmployee(), assignment.getShift(), assignment.getAssignmentStart(),
+                    assignment.getAssignmentEnd(), assignment.isLocked());
+            copy.setPlanningId(assignment.getPlanningId());
+            return copy;
+        }).collect(Collectors.toList());
+        var copy = new SolvedSchedule(scheduleId, limits, shifts, availabilities, employees, assignments);
+        copy.score = score;
+        return copy;
+    }
+
+    public AvailabilityIndex getAvailabilityIndex() {
+        if (availabilityIndex == null) {
+            availabilityIndex = AvailabilityIndex.of(this);
+        }
+        return availabilityIndex;
+    }
+
+    public void invalidateAvailabilityIndex() {
+        availabilityIndex = null;
+    }
 }
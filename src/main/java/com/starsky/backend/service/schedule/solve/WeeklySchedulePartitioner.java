@@ -0,0 +1,68 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.ScheduleShift;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Splits a schedule into one partition per calendar week (Monday to Sunday, UTC) by the start of its shifts, so that the weeks of a long
+ * schedule can be solved in parallel. Every partition gets all employees, but only the shifts, availabilities and assignments of its week.
+ * <p>
+ * Per employee limits apply to the whole schedule, so every partition gets its share of them, rounded up. The shares can add up to a bit
+ * more than the limits - the local search that follows the partitioned search works on the whole schedule and reconciles them.
+ */
+public class WeeklySchedulePartitioner implements SolutionPartitioner<SolvedSchedule> {
+    // epoch day 0 (1970-01-01) was a Thursday
+    private static final int DAYS_FROM_MONDAY_TO_EPOCH = 3;
+
+    @Override
+    public List<SolvedSchedule> splitWorkingSolution(ScoreDirector<SolvedSchedule> scoreDirector, Integer runnablePartThreadLimit) {
+        var workingSolution = scoreDirector.getWorkingSolution();
+        var shiftsByWeek = workingSolution.getShifts().stream()
+                .collect(Collectors.groupingBy(WeeklySchedulePartitioner::getWeekIndex, TreeMap::new, Collectors.toList()));
+        var assignmentsByShiftId = workingSolution.getEmployeeAssignments().stream()
+                .collect(Collectors.groupingBy(assignment -> assignment.getShift().getId()));
+        // availabilities are taken from the working solution, problem changes do not add them to the shifts
+        var availabilitiesByShiftId = workingSolution.getAvailabilities().stream()
+                .collect(Collectors.groupingBy(availability -> availability.getShift().getId()));
+
+        var limits = workingSolution.getLimits();
+        var partitions = new ArrayList<SolvedSchedule>(shiftsByWeek.size());
+        for (var weekShifts : shiftsByWeek.values()) {
+            // planning entities of a partition are copies, the partition solvers must not touch the working solution
+            var assignments = weekShifts.stream()
+                    .flatMap(shift -> assignmentsByShiftId.getOrDefault(shift.getId(), List.of()).stream())
+                    .map(WeeklySchedulePartitioner::copy)
+                    .collect(Collectors.toList());
+
+            double share = (double) weekShifts.size() / workingSolution.getShifts().size();
+            var weekLimits = new ScheduleLimits(
+                    (int) Math.ceil(limits.getMaxShiftsPerEmployee() * share),
+                    (int) Math.ceil(limits.getMaxHoursPerEmployee() * share),
+                    limits.getMaxHoursPerShift());
+            var availabilities = weekShifts.stream()
+                    .flatMap(shift -> availabilitiesByShiftId.getOrDefault(shift.getId(), List.of()).stream())
+                    .collect(Collectors.toList());
+            partitions.add(new SolvedSchedule(workingSolution.getScheduleId(), weekLimits, weekShifts, availabilities,
+                    new ArrayList<>(workingSolution.getEmployees()), assignments));
+        }
+        return partitions;
+    }
+
+    private static long getWeekIndex(ScheduleShift shift) {
+        long epochDay = Math.floorDiv(shift.getShiftStart().getEpochSecond(), 24 * 60 * 60);
+        return Math.floorDiv(epochDay + DAYS_FROM_MONDAY_TO_EPOCH, 7);
+    }
+
+    private static EmployeeAssignment copy(EmployeeAssignment assignment) {
+        var copy = new EmployeeAssignment(assignment.getEmployee(), assignment.getShift(), assignment.getAssignmentStart(), assignment.getAssignmentEnd(), assignment.isLocked());
+        copy.setPlanningId(assignment.getPlanningId());
+        return copy;
+    }
+}
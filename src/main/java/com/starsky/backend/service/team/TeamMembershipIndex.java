@@ -0,0 +1,74 @@
+package com.starsky.backend.service.team;
+
+import com.starsky.backend.cache.ExpiringCache;
+import com.starsky.backend.repository.TeamMemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ids of the teams every employee is a member of, so that checking whether an employee may see a team is a set lookup instead of loading their teams.
+ * Changes of team members invalidate the employees right away and again once the transaction that made them has ended - an index loaded
+ * in between may have read the members from before the change.
+ */
+@Component
+public class TeamMembershipIndex {
+    private final TeamMemberRepository teamMemberRepository;
+    private final ExpiringCache<Long, Set<Long>> teamIdsByMemberId;
+
+    public TeamMembershipIndex(TeamMemberRepository teamMemberRepository,
+                               @Value("${starsky.team-membership-cache.max-size:10000}") int maxSize,
+                               @Value("${starsky.team-membership-cache.time-to-live:5m}") Duration timeToLive) {
+        this.teamMemberRepository = teamMemberRepository;
+        this.teamIdsByMemberId = new ExpiringCache<>(maxSize, timeToLive);
+    }
+
+    public boolean isMember(long memberId, long teamId) {
+        return getTeamIds(memberId).contains(teamId);
+    }
+
+    public Set<Long> getTeamIds(long memberId) {
+        var cached = teamIdsByMemberId.get(memberId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        var teamIds = Set.copyOf(teamMemberRepository.getTeamIdsByMemberId(memberId));
+        teamIdsByMemberId.put(memberId, teamIds);
+        return teamIds;
+    }
+
+    public void invalidate(long memberId) {
+        invalidate(List.of(memberId));
+    }
+
+    public void invalidate(Collection<Long> memberIds) {
+        var invalidated = List.copyOf(memberIds);
+        invalidated.forEach(teamIdsByMemberId::invalidate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidated.forEach(teamIdsByMemberId::invalidate);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        teamIdsByMemberId.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    teamIdsByMemberId.invalidateAll();
+                }
+            });
+        }
+    }
+}
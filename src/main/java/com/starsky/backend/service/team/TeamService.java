@@ -5,6 +5,7 @@ import com.starsky.backend.api.team.UpdateTeamRequest;
 import com.starsky.backend.domain.team.Team;
 import com.starsky.backend.domain.team.TeamMember;
 import com.starsky.backend.domain.user.User;
+import com.starsky.backend.security.AuthenticatedUser;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 
@@ -13,10 +14,16 @@ import java.util.List;
 public interface TeamService {
     List<Team> getTeams(User user);
 
+    List<Team> getTeams(AuthenticatedUser user);
+
+    boolean isTeamMember(long memberId, long teamId);
+
     Team getTeam(long id, User owner) throws ResourceNotFoundException;
 
     List<TeamMember> getTeamMembers(long teamId, User user) throws ResourceNotFoundException;
 
+    List<TeamMember> getTeamMembers(long teamId, AuthenticatedUser user) throws ResourceNotFoundException;
+
     Team createTeam(String teamName, User owner) throws DataIntegrityViolationException;
 
     TeamMember createTeamMember(User member, Team team) throws DataIntegrityViolationException;
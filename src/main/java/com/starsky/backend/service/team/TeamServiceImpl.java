@@ -8,6 +8,9 @@ import com.starsky.backend.domain.user.Role;
 import com.starsky.backend.domain.user.User;
 import com.starsky.backend.repository.TeamMemberRepository;
 import com.starsky.backend.repository.TeamRepository;
+import com.starsky.backend.security.AuthenticatedUser;
+import com.starsky.backend.service.schedule.solve.ScheduleProblemChanges;
+import com.starsky.backend.service.schedule.solve.SolveJobRegistry;
 import com.starsky.backend.service.user.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,7 +22,6 @@ import org.springframework.stereotype.Service;
 import javax.transaction.Transactional;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,26 +30,41 @@ public class TeamServiceImpl implements TeamService {
     private final TeamRepository teamRepository;
     private final TeamMemberRepository teamMemberRepository;
     private final UserService userService;
+    private final SolveJobRegistry solveJobRegistry;
+    private final TeamMembershipIndex teamMembershipIndex;
     private final Logger logger = LoggerFactory.getLogger(TeamServiceImpl.class);
 
     @Autowired
-    public TeamServiceImpl(TeamRepository teamRepository, TeamMemberRepository teamMemberRepository, UserService userService) {
+    public TeamServiceImpl(TeamRepository teamRepository, TeamMemberRepository teamMemberRepository, UserService userService, SolveJobRegistry solveJobRegistry,
+                           TeamMembershipIndex teamMembershipIndex) {
         this.teamRepository = teamRepository;
         this.teamMemberRepository = teamMemberRepository;
         this.userService = userService;
+        this.solveJobRegistry = solveJobRegistry;
+        this.teamMembershipIndex = teamMembershipIndex;
     }
 
     @Override
     public List<Team> getTeams(User user) {
+        return getTeams(AuthenticatedUser.of(user));
+    }
+
+    @Override
+    public List<Team> getTeams(AuthenticatedUser user) {
         List<Team> teams;
         if (user.getRole() == Role.MANAGER) {
-            teams = teamRepository.getAllByOwner(user);
+            teams = teamRepository.getAllByOwnerId(user.getId());
         } else {
-            teams = teamMemberRepository.getAllByMember(user).stream().map(TeamMember::getTeam).collect(Collectors.toList());
+            teams = teamMemberRepository.getAllByMemberId(user.getId()).stream().map(TeamMember::getTeam).collect(Collectors.toList());
         }
         return teams;
     }
 
+    @Override
+    public boolean isTeamMember(long memberId, long teamId) {
+        return teamMembershipIndex.isMember(memberId, teamId);
+    }
+
     @Override
     public Team getTeam(long id, User owner) throws ResourceNotFoundException {
         return teamRepository.findByIdAndOwnerId(id, owner.getId()).orElseThrow(() -> {
@@ -60,12 +77,12 @@ public class TeamServiceImpl implements TeamService {
 
     @Override
     public List<TeamMember> getTeamMembers(long teamId, User user) throws ResourceNotFoundException {
-        Optional<Team> team;
-        if (user.getParentUser() == null) {
-            team = teamRepository.findByIdAndOwnerId(teamId, user.getId());
-        } else {
-            team = teamRepository.findByIdAndOwnerId(teamId, user.getParentUser().getId());
-        }
+        return getTeamMembers(teamId, AuthenticatedUser.of(user));
+    }
+
+    @Override
+    public List<TeamMember> getTeamMembers(long teamId, AuthenticatedUser user) throws ResourceNotFoundException {
+        var team = teamRepository.findByIdAndOwnerId(teamId, user.getOwnerId());
         if (team.isPresent()) {
             return teamMemberRepository.getAllByTeam(team.get());
         }
@@ -95,7 +112,9 @@ public class TeamServiceImpl implements TeamService {
             throw new DataIntegrityViolationException(error);
         }
         var teamMember = new TeamMember(member, team);
-        return teamMemberRepository.save(teamMember);
+        teamMember = teamMemberRepository.save(teamMember);
+        teamMembershipIndex.invalidate(member.getId());
+        return teamMember;
     }
 
     @Override
@@ -110,7 +129,9 @@ public class TeamServiceImpl implements TeamService {
     @Override
     public void deleteTeam(long teamId, User owner) throws ResourceNotFoundException {
         var team = getTeam(teamId, owner);
+        var memberIds = teamMemberRepository.getAllByTeam(team).stream().map(teamMember -> teamMember.getMember().getId()).collect(Collectors.toList());
         teamRepository.delete(team);
+        teamMembershipIndex.invalidate(memberIds);
     }
 
     @Override
@@ -122,6 +143,8 @@ public class TeamServiceImpl implements TeamService {
             return new ResourceNotFoundException(error);
         });
         teamMemberRepository.delete(member);
+        teamMembershipIndex.invalidate(employeeId);
+        removeFromActiveSolves(member.getTeam(), employeeId);
     }
 
     @Override
@@ -135,6 +158,12 @@ public class TeamServiceImpl implements TeamService {
             throw new ResourceNotFoundException(error);
         }
 
+        var requestedEmployeeIds = requests.stream().map(CreateTeamMemberRequest::getEmployeeId).collect(Collectors.toSet());
+        var removedEmployeeIds = teamMemberRepository.getAllByTeam(team).stream()
+                .map(teamMember -> teamMember.getMember().getId())
+                .filter(employeeId -> !requestedEmployeeIds.contains(employeeId))
+                .collect(Collectors.toList());
+
         teamMemberRepository.deleteAllByTeamId(teamId);
         var teamMembers = new ArrayList<TeamMember>();
         for (var request : requests) {
@@ -143,6 +172,12 @@ public class TeamServiceImpl implements TeamService {
             teamMembers.add(new TeamMember(user, team));
         }
         teamMemberRepository.saveAll(teamMembers);
+        teamMembershipIndex.invalidate(requestedEmployeeIds);
+        teamMembershipIndex.invalidate(removedEmployeeIds);
+        removedEmployeeIds.forEach(employeeId -> removeFromActiveSolves(team, employeeId));
+    }
 
+    private void removeFromActiveSolves(Team team, long employeeId) {
+        team.getSchedules().forEach(schedule -> solveJobRegistry.addProblemChange(schedule.getId(), ScheduleProblemChanges.removeEmployee(employeeId)));
     }
 }
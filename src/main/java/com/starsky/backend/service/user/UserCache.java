@@ -0,0 +1,124 @@
+package com.starsky.backend.service.user;
+
+import com.starsky.backend.cache.ExpiringCache;
+import com.starsky.backend.domain.user.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Enabled users by id and email, and the enabled employees of every manager. Users are copied into and out of the cache, so requests
+ * never share an instance - changing a returned user does not change the cache, users are changed on entities loaded from the database.
+ * The time to live bounds how long another node's changes of a user can go unnoticed.
+ */
+@Component
+public class UserCache {
+    private final ExpiringCache<Long, User> usersById;
+    // emails only point to ids, so a user is never cached twice
+    private final ExpiringCache<String, Long> idsByEmail;
+    private final ExpiringCache<Long, List<User>> employeesByManagerId;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserCache(@Value("${starsky.user-cache.max-size:1000}") int maxSize,
+                     @Value("${starsky.user-cache.time-to-live:1m}") Duration timeToLive,
+                     MeterRegistry meterRegistry) {
+        this.usersById = new ExpiringCache<>(maxSize, timeToLive);
+        this.idsByEmail = new ExpiringCache<>(maxSize, timeToLive);
+        this.employeesByManagerId = new ExpiringCache<>(maxSize, timeToLive);
+        meterRegistry.gauge("starsky.users.cache.size", usersById, ExpiringCache::size);
+        this.hits = Counter.builder("starsky.users.cache.gets")
+                .tag("result", "hit")
+                .description("User lookups answered by the user cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("starsky.users.cache.gets")
+                .tag("result", "miss")
+                .description("User lookups that had to query the database")
+                .register(meterRegistry);
+    }
+
+    public Optional<User> getById(long id) {
+        return count(usersById.get(id)).map(UserCache::copy);
+    }
+
+    public Optional<User> getByEmail(String email) {
+        // the user may have changed their email since it was cached
+        var user = idsByEmail.get(email).flatMap(usersById::get).filter(cached -> cached.getEmail().equals(email));
+        return count(user).map(UserCache::copy);
+    }
+
+    public Optional<List<User>> getEmployees(long managerId) {
+        return count(employeesByManagerId.get(managerId)).map(UserCache::copyAll);
+    }
+
+    public void put(User user) {
+        usersById.put(user.getId(), copy(user));
+        idsByEmail.put(user.getEmail(), user.getId());
+    }
+
+    public void putEmployees(long managerId, List<User> employees) {
+        employeesByManagerId.put(managerId, copyAll(employees));
+    }
+
+    /**
+     * Invalidates the user and the list of employees they belong to.
+     */
+    public void invalidate(User user) {
+        usersById.invalidate(user.getId());
+        idsByEmail.invalidate(user.getEmail());
+        if (user.getParentUser() != null) {
+            employeesByManagerId.invalidate(user.getParentUser().getId());
+        }
+    }
+
+    /**
+     * Invalidates the user right away and again once the transaction that deletes them has ended - a lookup in between may cache them
+     * as they were before the delete.
+     */
+    public void evict(User user) {
+        invalidate(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(user);
+                }
+            });
+        }
+    }
+
+    public void invalidateEmployees(long managerId) {
+        employeesByManagerId.invalidate(managerId);
+    }
+
+    private static List<User> copyAll(List<User> users) {
+        return users.stream().map(UserCache::copy).collect(Collectors.toUnmodifiableList());
+    }
+
+    private static User copy(User user) {
+        var parentUser = user.getParentUser() == null ? null : copy(user.getParentUser());
+        var copy = new User(user.getName(), user.getEmail(), user.getPassword(), user.getJobTitle(), user.getPhoneNumber(), user.isEnabled(),
+                user.getNotificationType(), user.getRole(), parentUser, user.isManuallyAdded());
+        copy.setId(user.getId());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
+    }
+
+    private <T> Optional<T> count(Optional<T> cached) {
+        if (cached.isPresent()) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return cached;
+    }
+}
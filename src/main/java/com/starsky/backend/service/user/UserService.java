@@ -23,6 +23,8 @@ public interface UserService {
 
     User getUserById(long id) throws ResourceNotFoundException;
 
+    boolean isEnabled(long id);
+
     User getEmployeeById(long id, User owner) throws ResourceNotFoundException;
 
     List<User> getEmployees(User manager);
@@ -11,6 +11,7 @@ import com.starsky.backend.domain.user.Role;
 import com.starsky.backend.domain.user.User;
 import com.starsky.backend.repository.UserRepository;
 import com.starsky.backend.service.invite.InviteService;
+import com.starsky.backend.service.team.TeamMembershipIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,13 +27,18 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
     private final InviteService inviteService;
+    private final UserCache userCache;
+    private final TeamMembershipIndex teamMembershipIndex;
     private final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, BCryptPasswordEncoder bCryptPasswordEncoder, InviteService inviteService) {
+    public UserServiceImpl(UserRepository userRepository, BCryptPasswordEncoder bCryptPasswordEncoder, InviteService inviteService, UserCache userCache,
+                           TeamMembershipIndex teamMembershipIndex) {
         this.userRepository = userRepository;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
         this.inviteService = inviteService;
+        this.userCache = userCache;
+        this.teamMembershipIndex = teamMembershipIndex;
     }
 
     @Override
@@ -57,6 +63,7 @@ public class UserServiceImpl implements UserService {
         if (invite != null) {
             invite.setHasRegistered(true);
             inviteService.updateInvite(invite);
+            userCache.invalidateEmployees(invite.getManager().getId());
         }
         return user;
     }
@@ -74,12 +81,15 @@ public class UserServiceImpl implements UserService {
                 manager,
                 true);
         user = userRepository.save(user);
+        userCache.invalidateEmployees(manager.getId());
         return user;
     }
 
     @Override
     public User updateEmployee(UpdateEmployeeRequest request, User manager, long employeeId) {
-        var employee = getEmployeeById(employeeId, manager);
+        // changed on an entity loaded from the database, users returned from the cache are copies
+        var employee = loadEmployee(employeeId, manager);
+        userCache.invalidate(employee);
 
         if (request.getEmail().isPresent()) {
             employee.setEmail(request.getEmail().get());
@@ -91,13 +101,18 @@ public class UserServiceImpl implements UserService {
             employee.setJobTitle(request.getJobTitle().get());
         }
 
-        return userRepository.save(employee);
+        return save(employee);
     }
 
     @Override
     public User getUserByEmail(String email) throws ResourceNotFoundException {
+        var cached = userCache.getByEmail(email);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         var user = userRepository.findByEmailAndEnabled(email, true);
         if (user.isPresent()) {
+            userCache.put(user.get());
             return user.get();
         }
         var error = "User (email=%s) does not exist.".formatted(email);
@@ -117,8 +132,13 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getUserById(long id) throws ResourceNotFoundException {
+        var cached = userCache.getById(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         var user = userRepository.findByIdAndEnabled(id, true);
         if (user.isPresent()) {
+            userCache.put(user.get());
             return user.get();
         }
         var error = "User (id=%d) does not exist.".formatted(id);
@@ -126,24 +146,48 @@ public class UserServiceImpl implements UserService {
         throw new ResourceNotFoundException(error);
     }
 
+    @Override
+    public boolean isEnabled(long id) {
+        // only enabled users are cached
+        if (userCache.getById(id).isPresent()) {
+            return true;
+        }
+        var user = userRepository.findByIdAndEnabled(id, true);
+        user.ifPresent(userCache::put);
+        return user.isPresent();
+    }
+
     @Override
     public User getEmployeeById(long id, User owner) throws ResourceNotFoundException {
-        var employee = userRepository.findByIdAndParentUserAndEnabled(id, owner, true);
-        if (employee.isPresent()) {
-            return employee.get();
+        var cached = userCache.getById(id).filter(user -> user.getParentUser() != null && user.getParentUser().getId() == owner.getId());
+        if (cached.isPresent()) {
+            return cached.get();
         }
-        var error = "Employee (id=%d, owner=%d) does not exist.".formatted(id, owner.getId());
-        this.logger.warn(error);
-        throw new ResourceNotFoundException(error);
+        var employee = loadEmployee(id, owner);
+        userCache.put(employee);
+        return employee;
     }
 
     @Override
     public List<User> getEmployees(User manager) {
-        return userRepository.findAllByParentUserAndEnabled(manager, true);
+        var cached = userCache.getEmployees(manager.getId());
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        var employees = userRepository.findAllByParentUserAndEnabled(manager, true);
+        userCache.putEmployees(manager.getId(), employees);
+        return employees;
     }
 
     @Override
-    public User updateUser(User user, UpdateUserRequest request) {
+    public User updateUser(User authenticatedUser, UpdateUserRequest request) {
+        // the authenticated user may be a copy from the cache, the change is made on the entity loaded from the database
+        var user = userRepository.findByIdAndEnabled(authenticatedUser.getId(), true).orElseThrow(() -> {
+            var error = "User (id=%d) does not exist.".formatted(authenticatedUser.getId());
+            this.logger.warn(error);
+            return new ResourceNotFoundException(error);
+        });
+        userCache.invalidate(user);
         if (request.getName().isPresent()) {
             user.setName(request.getName().get());
         }
@@ -156,7 +200,7 @@ public class UserServiceImpl implements UserService {
         if (request.getPassword().isPresent()) {
             user.setPassword(bCryptPasswordEncoder.encode(request.getPassword().get()));
         }
-        return userRepository.save(user);
+        return save(user);
     }
 
     @Override
@@ -166,9 +210,31 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void deleteEmployee(long employeeId, User manager) throws ResourceNotFoundException {
-        var employee = getEmployeeById(employeeId, manager);
+        var employee = loadEmployee(employeeId, manager);
+        userCache.evict(employee);
         employee.setEnabled(false);
-        userRepository.save(employee);
+        save(employee);
+        // a deleted employee must not see the schedules of their teams anymore, even if their token is still valid
+        teamMembershipIndex.invalidate(employee.getId());
+    }
+
+    private User loadEmployee(long id, User owner) throws ResourceNotFoundException {
+        var employee = userRepository.findByIdAndParentUserAndEnabled(id, owner, true);
+        if (employee.isPresent()) {
+            return employee.get();
+        }
+        var error = "Employee (id=%d, owner=%d) does not exist.".formatted(id, owner.getId());
+        this.logger.warn(error);
+        throw new ResourceNotFoundException(error);
+    }
+
+    private User save(User user) {
+        try {
+            return userRepository.save(user);
+        } finally {
+            // a lookup that ran during the save may have cached the user again
+            userCache.invalidate(user);
+        }
     }
 
 }
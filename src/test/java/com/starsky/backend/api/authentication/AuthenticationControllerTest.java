@@ -1,7 +1,9 @@
 package com.starsky.backend.api.authentication;
 
+import com.auth0.jwt.JWT;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.starsky.backend.config.JwtConfig;
+import com.starsky.backend.repository.UserRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,6 +35,9 @@ public class AuthenticationControllerTest {
     @Autowired
     private JwtConfig jwtConfig;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Test
     @DisplayName("Should get jwt token")
     public void testCorrectLogin() throws Exception {
@@ -50,6 +55,37 @@ public class AuthenticationControllerTest {
         Assertions.assertEquals(response.getExpiresIn(), jwtConfig.getExpirationTime().getSeconds());
     }
 
+    @Test
+    @DisplayName("Jwt token should carry the ids of the user and their manager")
+    public void tokenShouldCarryUserIds() throws Exception {
+        var result = mockMvc.perform(
+                MockMvcRequestBuilders.post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("t@t.com", "password"))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        var response = objectMapper.readValue(result.getResponse().getContentAsString(), TokenResponse.class);
+        var jwt = JWT.decode(response.getAccessToken());
+        var employee = userRepository.findByEmailAndEnabled("t@t.com", true).get();
+        var manager = userRepository.findByEmailAndEnabled("a@a.com", true).get();
+        Assertions.assertEquals(employee.getId(), jwt.getClaim(JwtConfig.USER_ID_CLAIM).asLong());
+        Assertions.assertEquals(manager.getId(), jwt.getClaim(JwtConfig.MANAGER_ID_CLAIM).asLong());
+        Assertions.assertEquals("ROLE_EMPLOYEE", jwt.getClaim(JwtConfig.ROLE_CLAIM).asString());
+
+        result = mockMvc.perform(
+                MockMvcRequestBuilders.post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("a@a.com", "password"))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        response = objectMapper.readValue(result.getResponse().getContentAsString(), TokenResponse.class);
+        jwt = JWT.decode(response.getAccessToken());
+        Assertions.assertEquals(manager.getId(), jwt.getClaim(JwtConfig.USER_ID_CLAIM).asLong());
+        Assertions.assertTrue(jwt.getClaim(JwtConfig.MANAGER_ID_CLAIM).isNull());
+    }
+
     @Test
     @DisplayName("Invalid login should be unauthorized")
     public void testInvalidLogin() throws Exception {
@@ -100,4 +136,24 @@ public class AuthenticationControllerTest {
                 .andDo(print())
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    @DisplayName("Only admins should read the metrics, health is public")
+    public void metricsShouldBeForbiddenForManagers() throws Exception {
+        var result = mockMvc.perform(
+                MockMvcRequestBuilders.post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("a@a.com", "password"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        var response = objectMapper.readValue(result.getResponse().getContentAsString(), TokenResponse.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics")
+                .header("Authorization", "%s %s".formatted(response.getTokenType(), response.getAccessToken())))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health"))
+                .andDo(print())
+                .andExpect(status().isOk());
+    }
 }
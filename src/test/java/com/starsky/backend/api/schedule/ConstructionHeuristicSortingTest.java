@@ -0,0 +1,85 @@
+package com.starsky.backend.api.schedule;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.EmployeeAvailability;
+import com.starsky.backend.domain.schedule.ScheduleShift;
+import com.starsky.backend.domain.user.User;
+import com.starsky.backend.service.schedule.solve.EmployeeAssignmentDifficultyWeightFactory;
+import com.starsky.backend.service.schedule.solve.EmployeeStrengthWeightFactory;
+import com.starsky.backend.service.schedule.solve.ScheduleLimits;
+import com.starsky.backend.service.schedule.solve.SolvedSchedule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+public class ConstructionHeuristicSortingTest {
+    private static final Instant MONDAY = Instant.parse("2021-01-04T08:00:00Z");
+
+    private final User flexibleEmployee = mockEmployee(1);
+    private final User scarceEmployee = mockEmployee(2);
+    private final ScheduleShift popularShift = mockShift(1, MONDAY);
+    private final ScheduleShift unpopularShift = mockShift(2, MONDAY.plus(Duration.ofDays(1)));
+    private final EmployeeAssignment popularAssignment = assignment(0, popularShift);
+    private final EmployeeAssignment unpopularAssignment = assignment(1, unpopularShift);
+
+    private final SolvedSchedule schedule = new SolvedSchedule(1, new ScheduleLimits(3, 24, 8), Arrays.asList(popularShift, unpopularShift),
+            Arrays.asList(
+                    availability(flexibleEmployee, popularShift, popularShift.getShiftStart()),
+                    availability(scarceEmployee, popularShift, popularShift.getShiftStart()),
+                    availability(flexibleEmployee, unpopularShift, unpopularShift.getShiftStart()),
+                    // only covers the second half of the shift, so it does not count
+                    availability(scarceEmployee, unpopularShift, unpopularShift.getShiftStart().plus(Duration.ofHours(4)))),
+            Arrays.asList(flexibleEmployee, scarceEmployee),
+            Arrays.asList(popularAssignment, unpopularAssignment));
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void assignmentsOfShiftsWithFewerAvailableEmployeesShouldBeMoreDifficult() {
+        var factory = new EmployeeAssignmentDifficultyWeightFactory();
+        Comparable popular = factory.createSorterWeight(schedule, popularAssignment);
+        Comparable unpopular = factory.createSorterWeight(schedule, unpopularAssignment);
+
+        Assertions.assertTrue(unpopular.compareTo(popular) > 0);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void employeesAvailableForMoreShiftsShouldBeStronger() {
+        var factory = new EmployeeStrengthWeightFactory();
+        Comparable flexible = factory.createSorterWeight(schedule, flexibleEmployee);
+        Comparable scarce = factory.createSorterWeight(schedule, scarceEmployee);
+
+        Assertions.assertTrue(flexible.compareTo(scarce) > 0);
+        Assertions.assertEquals(2, schedule.getAvailabilityIndex().getAvailableShiftCount(1));
+        Assertions.assertEquals(1, schedule.getAvailabilityIndex().getAvailableShiftCount(2));
+    }
+
+    private static EmployeeAvailability availability(User employee, ScheduleShift shift, Instant start) {
+        return new EmployeeAvailability(employee, shift, start, shift.getShiftEnd(), 8);
+    }
+
+    private static EmployeeAssignment assignment(long planningId, ScheduleShift shift) {
+        var assignment = new EmployeeAssignment(null, shift, shift.getShiftStart(), shift.getShiftEnd());
+        assignment.setPlanningId(planningId);
+        return assignment;
+    }
+
+    private static User mockEmployee(long id) {
+        var employee = Mockito.mock(User.class);
+        Mockito.when(employee.getId()).thenReturn(id);
+        return employee;
+    }
+
+    private static ScheduleShift mockShift(long id, Instant start) {
+        var shift = Mockito.mock(ScheduleShift.class);
+        Mockito.when(shift.getId()).thenReturn(id);
+        Mockito.when(shift.getShiftStart()).thenReturn(start);
+        Mockito.when(shift.getShiftEnd()).thenReturn(start.plus(Duration.ofHours(8)));
+        Mockito.when(shift.getNumberOfRequiredEmployees()).thenReturn(1);
+        return shift;
+    }
+}
@@ -2,10 +2,10 @@ package com.starsky.backend.api.schedule;
 
 import com.starsky.backend.domain.schedule.EmployeeAssignment;
 import com.starsky.backend.domain.schedule.EmployeeAvailability;
-import com.starsky.backend.domain.schedule.Schedule;
 import com.starsky.backend.domain.schedule.ScheduleShift;
 import com.starsky.backend.domain.user.User;
 import com.starsky.backend.service.schedule.solve.ScheduleConstraintProvider;
+import com.starsky.backend.service.schedule.solve.ScheduleLimits;
 import com.starsky.backend.service.schedule.solve.SolvedSchedule;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -57,7 +57,7 @@ public class ScheduleConstraintProviderTest {
         var availableAssignment2 = new EmployeeAssignment(employee2, shift, start, end);
         var notAvailableAssignment = new EmployeeAssignment(employee3, shift, start, end);
 
-        var solvedSchedule = new SolvedSchedule(1, Collections.singletonList(shift), Arrays.asList(employee, employee2, employee3), Arrays.asList(availableAssignment, availableAssignment2, notAvailableAssignment));
+        var solvedSchedule = new SolvedSchedule(1, new ScheduleLimits(5, 40, 8), Collections.singletonList(shift), Arrays.asList(employee, employee2, employee3), Arrays.asList(availableAssignment, availableAssignment2, notAvailableAssignment));
 
         constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeIsAvailable)
                 .givenSolution(solvedSchedule)
@@ -84,7 +84,7 @@ public class ScheduleConstraintProviderTest {
         var assignment2 = new EmployeeAssignment(employee2, shift, start, end);
         var availableAssignment = new EmployeeAssignment(employee3, shift, start, end);
 
-        var solvedSchedule = new SolvedSchedule(1, Collections.singletonList(shift), Arrays.asList(employee, employee2, employee3),
+        var solvedSchedule = new SolvedSchedule(1, new ScheduleLimits(5, 40, 8), Collections.singletonList(shift), Arrays.asList(employee, employee2, employee3),
                 Arrays.asList(assignment, assignment2, availableAssignment));
 
         constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeIsNotAvailable)
@@ -92,6 +92,51 @@ public class ScheduleConstraintProviderTest {
                 .penalizes(2);
     }
 
+    @Test
+    public void testEmployeeAvailabilitiesOfOtherShiftsAreIgnored() {
+        var start = Instant.parse("2020-01-01T08:00:00Z");
+        var end = Instant.parse("2020-01-01T16:00:00Z");
+        var nextDay = Duration.ofDays(1);
+        var employee = Mockito.mock(User.class);
+        var shift = Mockito.mock(ScheduleShift.class);
+        var shift2 = Mockito.mock(ScheduleShift.class);
+        Mockito.when(shift.getEmployeeAvailabilities()).thenReturn(Collections.singletonList(
+                new EmployeeAvailability(employee, shift, start, end, 8)));
+        Mockito.when(shift2.getEmployeeAvailabilities()).thenReturn(Collections.singletonList(
+                new EmployeeAvailability(employee, shift2, start.plus(nextDay), end.plus(nextDay), 8)));
+
+        var assignment = new EmployeeAssignment(employee, shift, start, end);
+
+        var solvedSchedule = new SolvedSchedule(1, new ScheduleLimits(5, 40, 8), Arrays.asList(shift, shift2), Collections.singletonList(employee),
+                Collections.singletonList(assignment));
+
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeIsAvailable)
+                .givenSolution(solvedSchedule)
+                .rewards(1);
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeIsNotAvailable)
+                .givenSolution(solvedSchedule)
+                .penalizes(0);
+    }
+
+    @Test
+    public void testOneShiftPerDayConstraint() {
+        var start = Instant.parse("2020-01-01T08:00:00Z");
+        var end = Instant.parse("2020-01-01T12:00:00Z");
+        var employee = Mockito.mock(User.class);
+        var shift = Mockito.mock(ScheduleShift.class);
+
+        var assignment = new EmployeeAssignment(employee, shift, start, end);
+        var sameDayAssignment = new EmployeeAssignment(employee, shift, start.plus(Duration.ofHours(6)), end.plus(Duration.ofHours(6)));
+        var nextMonthAssignment = new EmployeeAssignment(employee, shift, Instant.parse("2020-02-01T08:00:00Z"), Instant.parse("2020-02-01T12:00:00Z"));
+
+        var solvedSchedule = new SolvedSchedule(1, new ScheduleLimits(5, 40, 8), Collections.singletonList(shift), Collections.singletonList(employee),
+                Arrays.asList(assignment, sameDayAssignment, nextMonthAssignment));
+
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::oneShiftPerDay)
+                .givenSolution(solvedSchedule)
+                .penalizes(1);
+    }
+
     @Test
     public void testEmployeeHasTooManyShiftsAssignedConstraint() {
         var start = Instant.parse("2020-01-01T08:00:00Z");
@@ -100,16 +145,13 @@ public class ScheduleConstraintProviderTest {
         var employee2 = Mockito.mock(User.class);
         var employee3 = Mockito.mock(User.class);
         var shift = Mockito.mock(ScheduleShift.class);
-        var schedule = Mockito.mock(Schedule.class);
-
-        Mockito.when(schedule.getMaxShiftsPerEmployee()).thenReturn(1);
-        Mockito.when(shift.getSchedule()).thenReturn(schedule);
+        var limits = new ScheduleLimits(1, 40, 8);
 
         var assignment = new EmployeeAssignment(employee, shift, start, end);
         var assignment2 = new EmployeeAssignment(employee, shift, start, end);
         var assignment3 = new EmployeeAssignment(employee, shift, start, end);
 
-        var solvedSchedule = new SolvedSchedule(1, Collections.singletonList(shift), Arrays.asList(employee, employee2, employee3),
+        var solvedSchedule = new SolvedSchedule(1, limits, Collections.singletonList(shift), Arrays.asList(employee, employee2, employee3),
                 Arrays.asList(assignment, assignment2, assignment3));
 
         constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeHasTooManyShiftsAssigned)
@@ -125,20 +167,61 @@ public class ScheduleConstraintProviderTest {
         var employee2 = Mockito.mock(User.class);
         var employee3 = Mockito.mock(User.class);
         var shift = Mockito.mock(ScheduleShift.class);
-        var schedule = Mockito.mock(Schedule.class);
-
-        Mockito.when(schedule.getMaxShiftsPerEmployee()).thenReturn(2);
-        Mockito.when(shift.getSchedule()).thenReturn(schedule);
+        var limits = new ScheduleLimits(2, 40, 8);
 
         var assignment = new EmployeeAssignment(employee, shift, start, end);
         var assignment2 = new EmployeeAssignment(employee2, shift, start, end);
         var assignment3 = new EmployeeAssignment(employee3, shift, start, end);
 
-        var solvedSchedule = new SolvedSchedule(1, Collections.singletonList(shift), Arrays.asList(employee, employee2, employee3),
+        var solvedSchedule = new SolvedSchedule(1, limits, Collections.singletonList(shift), Arrays.asList(employee, employee2, employee3),
                 Arrays.asList(assignment, assignment2, assignment3));
 
         constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeHasLessThanMaxShiftsAssigned)
                 .givenSolution(solvedSchedule)
                 .rewards(3);
     }
+
+    @Test
+    public void testEmployeeHasTooManyShiftsAssignedIsPenalizedOncePerEmployee() {
+        var start = Instant.parse("2020-01-01T08:00:00Z");
+        var end = Instant.parse("2020-01-01T16:00:00Z");
+        var employee = Mockito.mock(User.class);
+        var shift = Mockito.mock(ScheduleShift.class);
+        var shift2 = Mockito.mock(ScheduleShift.class);
+        var limits = new ScheduleLimits(1, 40, 8);
+
+        var assignment = new EmployeeAssignment(employee, shift, start, end);
+        var assignment2 = new EmployeeAssignment(employee, shift2, start.plus(Duration.ofDays(1)), end.plus(Duration.ofDays(1)));
+
+        var solvedSchedule = new SolvedSchedule(1, limits, Arrays.asList(shift, shift2), Collections.singletonList(employee),
+                Arrays.asList(assignment, assignment2));
+
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeHasTooManyShiftsAssigned)
+                .givenSolution(solvedSchedule)
+                .penalizes(1);
+    }
+
+    @Test
+    public void testEmployeeHasTooManyHoursAssignedConstraint() {
+        var start = Instant.parse("2020-01-01T08:00:00Z");
+        var end = Instant.parse("2020-01-01T16:00:00Z");
+        var employee = Mockito.mock(User.class);
+        var employee2 = Mockito.mock(User.class);
+        var shift = Mockito.mock(ScheduleShift.class);
+        var limits = new ScheduleLimits(5, 10, 8);
+
+        var assignment = new EmployeeAssignment(employee, shift, start, end);
+        var assignment2 = new EmployeeAssignment(employee, shift, start.plus(Duration.ofDays(1)), end.plus(Duration.ofDays(1)));
+        var assignment3 = new EmployeeAssignment(employee2, shift, start, end);
+
+        var solvedSchedule = new SolvedSchedule(1, limits, Collections.singletonList(shift), Arrays.asList(employee, employee2),
+                Arrays.asList(assignment, assignment2, assignment3));
+
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeHasTooManyHoursAssigned)
+                .givenSolution(solvedSchedule)
+                .penalizes(1);
+        constraintVerifier.verifyThat(ScheduleConstraintProvider::employeeHasLessThanMaxHoursAssigned)
+                .givenSolution(solvedSchedule)
+                .rewards(1);
+    }
 }
@@ -3,8 +3,9 @@ package com.starsky.backend.api.schedule;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.starsky.backend.api.TestJwtProvider;
 import com.starsky.backend.api.authentication.LoginRequest;
-import com.starsky.backend.api.schedule.assignment.EmployeeAssignmentResponse;
+import com.starsky.backend.api.authentication.TokenResponse;
 import com.starsky.backend.api.team.TeamResponse;
+import com.starsky.backend.api.user.UserResponse;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -89,6 +90,33 @@ public class ScheduleControllerTest extends TestJwtProvider {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void employeeOutsideOfTeamShouldGetForbidden() throws Exception {
+        // scheduling@19.com is an employee of the same manager, but not a member of the schedule's team
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("scheduling@19.com", "password"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        var token = objectMapper.readValue(result.getResponse().getContentAsString(), TokenResponse.class);
+        var header = "%s %s".formatted(token.getTokenType(), token.getAccessToken());
+
+        for (var url : new String[]{"/user/schedules/1", "/user/schedules/1/shifts", "/user/shifts/1", "/user/availabilities/1"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Authorization", header))
+                    .andDo(print())
+                    .andExpect(status().isForbidden());
+        }
+        for (var url : new String[]{"/user/schedules/15467898", "/user/shifts/15467898", "/user/availabilities/15467898"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Authorization", header))
+                    .andDo(print())
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Test
     public void employeeShouldGetForbiddenManagerScheduleRoutes() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.post("/user/teams/1/schedules")
@@ -123,17 +151,6 @@ public class ScheduleControllerTest extends TestJwtProvider {
         Assertions.assertTrue(Arrays.stream(scheduleResponse).anyMatch(resp -> resp.getScheduleName().equals("Test schedule 1") || resp.getScheduleName().equals("Test schedule 2")));
     }
 
-    @Test
-    public void shouldGetSolvedSchedule() throws Exception {
-        var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve")
-                .contentType(MediaType.APPLICATION_JSON)
-                .header("Authorization", getManagerJwtHeader()))
-                .andDo(print())
-                .andExpect(status().isOk())
-                .andReturn();
-        var scheduleResponse = objectMapper.readValue(result.getResponse().getContentAsString(), EmployeeAssignmentResponse[].class);
-    }
-
     @Test
     public void employeeShouldGetAllSchedules() throws Exception {
         var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules")
@@ -280,6 +297,61 @@ public class ScheduleControllerTest extends TestJwtProvider {
                 .andExpect(status().isUnprocessableEntity());
     }
 
+    @Test
+    @Transactional
+    public void deletedEmployeeShouldGetForbiddenWithOldToken() throws Exception {
+        var header = loginAndDelete("scheduling@2.com");
+
+        for (var url : new String[]{"/user/teams", "/user/teams/%d/members".formatted(team.getId()), "/user/schedules", "/user/schedules/1"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Authorization", header))
+                    .andDo(print())
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Test
+    @Transactional
+    public void deletedEmployeeShouldGetForbiddenShiftAndAvailability() throws Exception {
+        var header = loginAndDelete("scheduling@3.com");
+
+        for (var url : new String[]{"/user/shifts/1", "/user/availabilities/1"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Authorization", header))
+                    .andDo(print())
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    /**
+     * Logs in as the employee, then deletes them as their manager. Returns the authorization header of the employee's token.
+     */
+    private String loginAndDelete(String email) throws Exception {
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(email, "password"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        var token = objectMapper.readValue(result.getResponse().getContentAsString(), TokenResponse.class);
+
+        result = mockMvc.perform(MockMvcRequestBuilders.get("/user/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isOk())
+                .andReturn();
+        var employee = Arrays.stream(objectMapper.readValue(result.getResponse().getContentAsString(), UserResponse[].class))
+                .filter(user -> user.getEmail().equals(email))
+                .findFirst()
+                .orElseThrow();
+        mockMvc.perform(MockMvcRequestBuilders.delete("/user/employees/%d".formatted(employee.getId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().is2xxSuccessful());
+        return "%s %s".formatted(token.getTokenType(), token.getAccessToken());
+    }
+
     private ScheduleResponse createSchedule() throws Exception {
         var request = new CreateScheduleRequest("testing", Instant.now(), Instant.now().plus(Duration.ofDays(10)), 80, 10, 10);
         var result = mockMvc.perform(MockMvcRequestBuilders.post("/user/teams/%d/schedules".formatted(team.getId()))
@@ -0,0 +1,70 @@
+package com.starsky.backend.api.schedule;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.ScheduleShift;
+import com.starsky.backend.domain.user.User;
+import com.starsky.backend.service.schedule.solve.ScheduleLimits;
+import com.starsky.backend.service.schedule.solve.SolvedSchedule;
+import com.starsky.backend.service.schedule.solve.WeeklySchedulePartitioner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class WeeklySchedulePartitionerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldSplitScheduleByWeek() {
+        var monday = Instant.parse("2021-01-04T08:00:00Z");
+        var employee = Mockito.mock(User.class);
+        var mondayShift = mockShift(1, monday);
+        var sundayShift = mockShift(2, monday.plus(Duration.ofDays(6)));
+        var nextMondayShift = mockShift(3, monday.plus(Duration.ofDays(7)));
+
+        var assignments = Arrays.asList(
+                new EmployeeAssignment(employee, mondayShift, mondayShift.getShiftStart(), mondayShift.getShiftEnd()),
+                new EmployeeAssignment(null, sundayShift, sundayShift.getShiftStart(), sundayShift.getShiftEnd()),
+                new EmployeeAssignment(null, nextMondayShift, nextMondayShift.getShiftStart(), nextMondayShift.getShiftEnd(), true));
+        for (int i = 0; i < assignments.size(); i++) {
+            assignments.get(i).setPlanningId((long) i);
+        }
+        var schedule = new SolvedSchedule(1, new ScheduleLimits(3, 24, 8), Arrays.asList(mondayShift, sundayShift, nextMondayShift),
+                Collections.singletonList(employee), assignments);
+        ScoreDirector<SolvedSchedule> scoreDirector = Mockito.mock(ScoreDirector.class);
+        Mockito.when(scoreDirector.getWorkingSolution()).thenReturn(schedule);
+
+        var partitions = new WeeklySchedulePartitioner().splitWorkingSolution(scoreDirector, 2);
+
+        Assertions.assertEquals(2, partitions.size());
+        var firstWeek = partitions.get(0);
+        Assertions.assertEquals(Arrays.asList(mondayShift, sundayShift), firstWeek.getShifts());
+        Assertions.assertEquals(2, firstWeek.getEmployeeAssignments().size());
+        Assertions.assertEquals(2, firstWeek.getLimits().getMaxShiftsPerEmployee());
+        Assertions.assertEquals(16, firstWeek.getLimits().getMaxHoursPerEmployee());
+        // entities are copies with the same planning id and values
+        var copy = firstWeek.getEmployeeAssignments().get(0);
+        Assertions.assertNotSame(assignments.get(0), copy);
+        Assertions.assertEquals(0L, copy.getPlanningId());
+        Assertions.assertSame(employee, copy.getEmployee());
+
+        var secondWeek = partitions.get(1);
+        Assertions.assertEquals(Collections.singletonList(nextMondayShift), secondWeek.getShifts());
+        Assertions.assertTrue(secondWeek.getEmployeeAssignments().get(0).isLocked());
+        Assertions.assertEquals(1, secondWeek.getLimits().getMaxShiftsPerEmployee());
+    }
+
+    private ScheduleShift mockShift(long id, Instant start) {
+        var shift = Mockito.mock(ScheduleShift.class);
+        Mockito.when(shift.getId()).thenReturn(id);
+        Mockito.when(shift.getShiftStart()).thenReturn(start);
+        Mockito.when(shift.getShiftEnd()).thenReturn(start.plus(Duration.ofHours(8)));
+        Mockito.when(shift.getEmployeeAvailabilities()).thenReturn(Collections.emptyList());
+        return shift;
+    }
+}
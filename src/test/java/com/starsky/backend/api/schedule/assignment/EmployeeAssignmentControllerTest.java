@@ -328,6 +328,21 @@ public class EmployeeAssignmentControllerTest extends TestJwtProvider {
         Assertions.assertEquals(assignment.getAssignmentEnd(), response.getAssignmentEnd());
         Assertions.assertEquals(employeeId, response.getEmployeeId());
         Assertions.assertEquals(shiftWithAssignments.getId(), response.getShiftId());
+        Assertions.assertFalse(response.isLocked());
+    }
+
+    @Test
+    @Transactional
+    public void shouldCreateLockedAssignment() throws Exception {
+        var assignment = new CreateEmployeeAssignmentRequest(shiftWithAssignments.getShiftStart(), shiftWithAssignments.getShiftEnd(), true);
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/shifts/%d/employees/%d/assignments".formatted(shiftWithAssignments.getId(), employeeId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(assignment))
+                        .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isOk()).andReturn();
+        var response = objectMapper.readValue(result.getResponse().getContentAsString(), EmployeeAssignmentResponse.class);
+        Assertions.assertTrue(response.isLocked());
     }
 
     @Test
@@ -405,6 +420,21 @@ public class EmployeeAssignmentControllerTest extends TestJwtProvider {
         Assertions.assertEquals(shiftWithAssignments.getId(), response.getShiftId());
     }
 
+    @Test
+    @Transactional
+    public void shouldLockEmployeeAssignment() throws Exception {
+        var result = mockMvc.perform(MockMvcRequestBuilders.patch("/user/schedules/1/assignments/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateEmployeeAssignmentRequest(null, null, true)))
+                        .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isOk()).andReturn();
+
+        var response = objectMapper.readValue(result.getResponse().getContentAsString(), EmployeeAssignmentResponse.class);
+        Assertions.assertTrue(response.isLocked());
+        Assertions.assertEquals(employeeId, response.getEmployeeId());
+    }
+
     @Test
     @Transactional
     public void shouldGetNotFoundWhenUpdatingAssignment() throws Exception {
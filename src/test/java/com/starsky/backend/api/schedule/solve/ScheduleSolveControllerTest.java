@@ -0,0 +1,395 @@
+package com.starsky.backend.api.schedule.solve;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.starsky.backend.api.TestJwtProvider;
+import com.starsky.backend.api.authentication.LoginRequest;
+import com.starsky.backend.api.schedule.assignment.CreateEmployeeAssignmentRequest;
+import com.starsky.backend.api.schedule.assignment.EmployeeAssignmentResponse;
+import com.starsky.backend.api.schedule.shift.ScheduleShiftResponse;
+import com.starsky.backend.api.schedule.shift.UpdateScheduleShiftRequest;
+import com.starsky.backend.api.user.CreateEmployeeRequest;
+import com.starsky.backend.api.user.UserResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.transaction.Transactional;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ScheduleSolveControllerTest extends TestJwtProvider {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void setup() throws Exception {
+        setupLogins(mockMvc, objectMapper, new LoginRequest("scheduling@a.com", "password"), new LoginRequest("scheduling@1.com", "password"));
+    }
+
+    @Test
+    public void shouldGetSolvedSchedule() throws Exception {
+        var mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvcResult.getAsyncResult(30000);
+
+        var result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        var assignments = objectMapper.readValue(result.getResponse().getContentAsString(), EmployeeAssignmentResponse[].class);
+        Assertions.assertNotNull(assignments);
+    }
+
+    @Test
+    public void shouldStartAndPollSolveJob() throws Exception {
+        var job = startSolveJob(1);
+        Assertions.assertEquals(1, job.getScheduleId());
+        Assertions.assertNotNull(job.getJobId());
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s".formatted(job.getJobId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        var polled = objectMapper.readValue(result.getResponse().getContentAsString(), SolveJobResponse.class);
+        Assertions.assertEquals(job.getJobId(), polled.getJobId());
+        Assertions.assertNotEquals("FAILED", polled.getStatus());
+    }
+
+    @Test
+    public void shouldStartSolveJobFromSavedAssignments() throws Exception {
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/solve?warm_start=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andReturn();
+        var job = objectMapper.readValue(result.getResponse().getContentAsString(), SolveJobResponse.class);
+        Assertions.assertEquals(1, job.getScheduleId());
+        Assertions.assertNotEquals("FAILED", job.getStatus());
+    }
+
+    @Test
+    public void shouldCancelSolveJob() throws Exception {
+        // long limits, so that the job cannot finish on its own before it is cancelled
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/solve?spent_limit_ms=60000&unimproved_limit_ms=60000")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        var job = objectMapper.readValue(result.getResponse().getContentAsString(), SolveJobResponse.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/user/schedules/1/solve/%s".formatted(job.getJobId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        SolveJobResponse polled = null;
+        for (int i = 0; i < 100; i++) {
+            var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s".formatted(job.getJobId()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Authorization", getManagerJwtHeader()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            polled = objectMapper.readValue(result.getResponse().getContentAsString(), SolveJobResponse.class);
+            if (polled.getStatus().equals("CANCELLED")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        Assertions.assertEquals("CANCELLED", polled.getStatus());
+        Assertions.assertNotNull(polled.getAssignments());
+    }
+
+    @Test
+    public void shouldStopSolvingOnceSolutionStopsImproving() throws Exception {
+        var job = startSolveJob(1);
+
+        SolveJobResponse polled = null;
+        // the spent limit of the server is 1s + 20ms per assignment, solving must not take the 10s of the solver configuration
+        for (int i = 0; i < 50; i++) {
+            var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s".formatted(job.getJobId()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Authorization", getManagerJwtHeader()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            polled = objectMapper.readValue(result.getResponse().getContentAsString(), SolveJobResponse.class);
+            if (polled.getStatus().equals("COMPLETED")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        Assertions.assertEquals("COMPLETED", polled.getStatus());
+        Assertions.assertNotNull(polled.getAssignments());
+    }
+
+    @Test
+    public void shouldStreamSolveJobUntilFinished() throws Exception {
+        var job = startSolveJob(1);
+
+        var mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s/events".formatted(job.getJobId()))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvcResult.getAsyncResult(30000);
+
+        var content = mvcResult.getResponse().getContentAsString();
+        Assertions.assertTrue(content.contains("event:best-solution"));
+        Assertions.assertTrue(content.contains("event:finished"));
+        Assertions.assertTrue(content.contains("\"status\":\"COMPLETED\""));
+    }
+
+    @Test
+    public void shouldKeepSolvingWhenShiftIsUpdated() throws Exception {
+        var job = startSolveJob(1);
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/shifts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isOk())
+                .andReturn();
+        var shift = objectMapper.readValue(result.getResponse().getContentAsString(), ScheduleShiftResponse[].class)[0];
+        var request = new UpdateScheduleShiftRequest(null, null, shift.getNumberOfRequiredEmployees());
+        mockMvc.perform(MockMvcRequestBuilders.patch("/user/shifts/%d".formatted(shift.getId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        var mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s/events".formatted(job.getJobId()))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvcResult.getAsyncResult(30000);
+        Assertions.assertTrue(mvcResult.getResponse().getContentAsString().contains("\"status\":\"COMPLETED\""));
+    }
+
+    @Test
+    @Transactional
+    public void shouldApplyFinishedSolveJob() throws Exception {
+        var job = startSolveJob(1);
+
+        SolveJobResponse polled = null;
+        for (int i = 0; i < 50; i++) {
+            var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s".formatted(job.getJobId()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Authorization", getManagerJwtHeader()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            polled = objectMapper.readValue(result.getResponse().getContentAsString(), SolveJobResponse.class);
+            if (polled.getStatus().equals("COMPLETED")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        Assertions.assertEquals("COMPLETED", polled.getStatus());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/solve/%s/apply".formatted(job.getJobId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/assignments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isOk())
+                .andReturn();
+        var assignments = objectMapper.readValue(result.getResponse().getContentAsString(), EmployeeAssignmentResponse[].class);
+        Assertions.assertEquals(polled.getAssignments().length, assignments.length);
+    }
+
+    @Test
+    public void shouldNotApplyUnfinishedSolveJob() throws Exception {
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/solve?spent_limit_ms=60000&unimproved_limit_ms=60000")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        var job = objectMapper.readValue(result.getResponse().getContentAsString(), SolveJobResponse.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/solve/%s/apply".formatted(job.getJobId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/user/schedules/1/solve/%s".formatted(job.getJobId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void shouldExplainScore() throws Exception {
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/score")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        var explanation = objectMapper.readValue(result.getResponse().getContentAsString(), ScoreExplanationResponse.class);
+        Assertions.assertEquals(1, explanation.getScheduleId());
+        Assertions.assertNotNull(explanation.getScore());
+        Assertions.assertTrue(explanation.getConstraints().length > 0);
+        Assertions.assertTrue(explanation.getEmployees().length > 0);
+
+        // the schedule has not changed, the cached explanation is returned
+        var cachedResult = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/score")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertEquals(result.getResponse().getContentAsString(), cachedResult.getResponse().getContentAsString());
+    }
+
+    @Test
+    @Transactional
+    public void shouldExplainPenaltyOfAssignedEmployeeWithoutAvailability() throws Exception {
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/user/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateEmployeeRequest("Unavailable employee", "unavailable@scheduling.com", "Waiter")))
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isOk())
+                .andReturn();
+        var employee = objectMapper.readValue(result.getResponse().getContentAsString(), UserResponse.class);
+
+        result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/shifts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andExpect(status().isOk())
+                .andReturn();
+        var shift = objectMapper.readValue(result.getResponse().getContentAsString(), ScheduleShiftResponse[].class)[0];
+        mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/shifts/%d/employees/%d/assignments".formatted(shift.getId(), employee.getId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateEmployeeAssignmentRequest(shift.getShiftStart(), shift.getShiftEnd())))
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        result = mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/score")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        var explanation = objectMapper.readValue(result.getResponse().getContentAsString(), ScoreExplanationResponse.class);
+
+        // the employee has no availabilities at all, their saved assignment is explained as it is instead of being left unassigned
+        var employeeScore = Arrays.stream(explanation.getEmployees()).filter(score -> score.getEmployeeId() == employee.getId()).findFirst();
+        Assertions.assertTrue(employeeScore.isPresent());
+        Assertions.assertEquals("Unavailable employee", employeeScore.get().getEmployeeName());
+        var notAvailable = Arrays.stream(explanation.getConstraints()).filter(constraint -> constraint.getConstraint().equals("employee is not available")).findFirst();
+        Assertions.assertTrue(notAvailable.isPresent());
+        Assertions.assertTrue(notAvailable.get().getMatchCount() > 0);
+    }
+
+    @Test
+    public void shouldGetNotFoundForNonExistentSolveJob() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s".formatted(UUID.randomUUID()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/user/schedules/1/solve/%s".formatted(UUID.randomUUID()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/solve/%s/apply".formatted(UUID.randomUUID()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldGetNotFoundForSolveJobOfAnotherSchedule() throws Exception {
+        var job = startSolveJob(1);
+        mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/2/solve/%s".formatted(job.getJobId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void employeeShouldGetForbiddenSolveRoutes() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/solve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getEmployeeJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getEmployeeJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s".formatted(UUID.randomUUID()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getEmployeeJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/user/schedules/1/solve/%s".formatted(UUID.randomUUID()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getEmployeeJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/solve/%s/events".formatted(UUID.randomUUID()))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Authorization", getEmployeeJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/1/solve/%s/apply".formatted(UUID.randomUUID()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getEmployeeJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/user/schedules/1/score")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getEmployeeJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+    }
+
+    private SolveJobResponse startSolveJob(long scheduleId) throws Exception {
+        var result = mockMvc.perform(MockMvcRequestBuilders.post("/user/schedules/%d/solve".formatted(scheduleId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", getManagerJwtHeader()))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), SolveJobResponse.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.starsky.backend.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+public class ExpiringCacheTest {
+
+    @Test
+    public void shouldExpireEntries() {
+        var clock = new MutableClock(Instant.parse("2021-01-01T00:00:00Z"));
+        var cache = new ExpiringCache<String, Integer>(10, Duration.ofMinutes(1), clock);
+        cache.put("a", 1);
+
+        clock.advance(Duration.ofSeconds(59));
+        Assertions.assertEquals(1, cache.get("a").orElseThrow());
+
+        clock.advance(Duration.ofSeconds(1));
+        Assertions.assertTrue(cache.get("a").isEmpty());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldExpireEntriesAtTheirOwnExpiryFirst() {
+        var clock = new MutableClock(Instant.parse("2021-01-01T00:00:00Z"));
+        var cache = new ExpiringCache<String, Integer>(10, Duration.ofMinutes(1), clock);
+        cache.put("a", 1, clock.instant().plus(Duration.ofSeconds(10)));
+        cache.put("b", 2, clock.instant().plus(Duration.ofHours(1)));
+
+        clock.advance(Duration.ofSeconds(10));
+        Assertions.assertTrue(cache.get("a").isEmpty());
+        Assertions.assertEquals(2, cache.get("b").orElseThrow());
+
+        clock.advance(Duration.ofSeconds(50));
+        Assertions.assertTrue(cache.get("b").isEmpty());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntry() {
+        var cache = new ExpiringCache<String, Integer>(2, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        Assertions.assertTrue(cache.get("a").isPresent());
+        Assertions.assertTrue(cache.get("b").isEmpty());
+        Assertions.assertTrue(cache.get("c").isPresent());
+    }
+
+    @Test
+    public void shouldInvalidateEntries() {
+        var cache = new ExpiringCache<String, Integer>(10, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        cache.invalidate("a");
+        cache.invalidateIf(key -> key.equals("b"));
+        Assertions.assertTrue(cache.get("a").isEmpty());
+        Assertions.assertTrue(cache.get("b").isEmpty());
+        Assertions.assertTrue(cache.get("c").isPresent());
+
+        cache.invalidateAll();
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheAnythingWithoutSize() {
+        var cache = new ExpiringCache<String, Integer>(0, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        Assertions.assertTrue(cache.get("a").isEmpty());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
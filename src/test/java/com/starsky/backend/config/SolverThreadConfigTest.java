@@ -0,0 +1,29 @@
+package com.starsky.backend.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class SolverThreadConfigTest {
+
+    @Test
+    public void partitionedSearchShouldStayWithinSolvingCores() {
+        for (int cores = 1; cores <= 64; cores++) {
+            for (var moveThreadCount : new String[]{SolverThreadConfig.AUTO, SolverThreadConfig.NONE, "1", "2", "4"}) {
+                for (var parallelSolverCount : new String[]{SolverThreadConfig.AUTO, "1", "2", "8"}) {
+                    var config = new SolverThreadConfig(moveThreadCount, parallelSolverCount, 2, true, Duration.ofSeconds(1), cores);
+                    int threads = config.getParallelSolvers() * config.getPartThreads() * Math.max(1, config.getMoveThreads());
+                    Assertions.assertTrue(threads <= config.getSolvingCores(), "%d cores, %s move threads, %s parallel solvers use %d threads"
+                            .formatted(cores, moveThreadCount, parallelSolverCount, threads));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void partitionedSearchShouldUseCoresLeftByMoveThreads() {
+        var config = new SolverThreadConfig("2", "2", 0, true, Duration.ofSeconds(1), 16);
+        Assertions.assertEquals(4, config.getPartThreads());
+    }
+}
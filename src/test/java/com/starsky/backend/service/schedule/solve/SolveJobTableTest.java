@@ -0,0 +1,76 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.repository.ScheduleSolveJobRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.transaction.Transactional;
+import java.time.Duration;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@ActiveProfiles("test")
+@Transactional
+public class SolveJobTableTest {
+
+    @Autowired
+    private SolveJobTable solveJobTable;
+    @Autowired
+    private ScheduleSolveJobRepository scheduleSolveJobRepository;
+
+    @Test
+    public void shouldAddScheduledJob() {
+        var job = solveJobTable.add(1, 2, new SolveOptions(true, Duration.ofSeconds(5), null));
+
+        var found = solveJobTable.find(1, job.getId(), 2).orElseThrow();
+        Assertions.assertEquals(SolveJobStatus.SCHEDULED, found.getStatus());
+        Assertions.assertTrue(found.isWarmStart());
+        Assertions.assertEquals(5000, found.getSpentLimitMs());
+        Assertions.assertNull(found.getUnimprovedLimitMs());
+        Assertions.assertTrue(solveJobTable.find(1, job.getId(), 3).isEmpty());
+        Assertions.assertTrue(solveJobTable.find(2, job.getId(), 2).isEmpty());
+    }
+
+    @Test
+    public void shouldCancelScheduledJobRightAway() {
+        var job = solveJobTable.add(1, 2, new SolveOptions(false));
+        solveJobTable.cancel(job);
+
+        var cancelled = scheduleSolveJobRepository.findById(job.getId()).orElseThrow();
+        Assertions.assertEquals(SolveJobStatus.CANCELLED, cancelled.getStatus());
+        Assertions.assertFalse(cancelled.isCancelRequested());
+    }
+
+    @Test
+    public void shouldRequestCancelOfClaimedJob() {
+        var job = solveJobTable.add(1, 2, new SolveOptions(false));
+        job.setStatus(SolveJobStatus.SOLVING);
+        scheduleSolveJobRepository.saveAndFlush(job);
+        solveJobTable.cancel(job);
+
+        var cancelled = scheduleSolveJobRepository.findById(job.getId()).orElseThrow();
+        Assertions.assertEquals(SolveJobStatus.SOLVING, cancelled.getStatus());
+        Assertions.assertTrue(cancelled.isCancelRequested());
+    }
+
+    @Test
+    public void shouldDropResultOfJobClaimedByAnotherWorker() {
+        var job = solveJobTable.add(1, 2, new SolveOptions(false));
+        job.setStatus(SolveJobStatus.SOLVING);
+        job.setWorkerId("worker-b");
+        scheduleSolveJobRepository.saveAndFlush(job);
+
+        var solveJob = new SolveJob(job.getId(), 1, 2, new SolveTermination(Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1)));
+        solveJob.complete(null);
+        solveJobTable.writeResult(solveJob, "worker-a");
+        Assertions.assertEquals(SolveJobStatus.SOLVING, scheduleSolveJobRepository.findById(job.getId()).orElseThrow().getStatus());
+
+        solveJobTable.writeResult(solveJob, "worker-b");
+        Assertions.assertEquals(SolveJobStatus.COMPLETED, scheduleSolveJobRepository.findById(job.getId()).orElseThrow().getStatus());
+    }
+}
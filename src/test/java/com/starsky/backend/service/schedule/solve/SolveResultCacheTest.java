@@ -0,0 +1,53 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.domain.schedule.EmployeeAssignment;
+import com.starsky.backend.domain.schedule.ScheduleShift;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SolveResultCacheTest {
+    private static final String FINGERPRINT = "fingerprint";
+
+    private final SolveResultCache cache = new SolveResultCache(10, Duration.ofMinutes(1));
+    private final SolveTermination shortTermination = new SolveTermination(Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1));
+    private final SolveTermination longTermination = new SolveTermination(Duration.ofMinutes(1), Duration.ofSeconds(10), Duration.ofSeconds(5));
+
+    @Test
+    public void shouldOnlyReturnSolutionsOfTheSameTermination() {
+        cache.put(FINGERPRINT, shortTermination, solution());
+
+        Assertions.assertTrue(cache.get(FINGERPRINT, shortTermination).isPresent());
+        Assertions.assertTrue(cache.get(FINGERPRINT, longTermination).isEmpty());
+    }
+
+    @Test
+    public void shouldHandOutCopies() {
+        var solution = solution();
+        cache.put(FINGERPRINT, shortTermination, solution);
+
+        var first = cache.get(FINGERPRINT, shortTermination).orElseThrow();
+        var second = cache.get(FINGERPRINT, shortTermination).orElseThrow();
+        Assertions.assertNotSame(first, second);
+        Assertions.assertNotSame(first.getEmployeeAssignments().get(0), second.getEmployeeAssignments().get(0));
+
+        // changes of the cached copy or of the original solution do not reach other jobs
+        first.getEmployeeAssignments().clear();
+        solution.getEmployeeAssignments().clear();
+        Assertions.assertEquals(1, cache.get(FINGERPRINT, shortTermination).orElseThrow().getEmployeeAssignments().size());
+    }
+
+    private static SolvedSchedule solution() {
+        var start = Instant.parse("2021-03-01T08:00:00Z");
+        var end = start.plus(Duration.ofHours(8));
+        var shift = new ScheduleShift(start, end, null, 1);
+        shift.setId(1L);
+        var assignment = new EmployeeAssignment(null, shift, start, end);
+        assignment.setPlanningId(0L);
+        return new SolvedSchedule(1, null, List.of(shift), List.of(), List.of(), new ArrayList<>(List.of(assignment)));
+    }
+}
@@ -0,0 +1,116 @@
+package com.starsky.backend.service.schedule.solve;
+
+import com.starsky.backend.api.exception.SolveJobCancelledException;
+import com.starsky.backend.api.exception.SolveQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.optaplanner.core.api.solver.SolverJob;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+public class SolveSchedulerTest {
+    private static final long MANAGER_A = 1;
+    private static final long MANAGER_B = 2;
+
+    private final List<SolveJob> started = new ArrayList<>();
+
+    @Test
+    public void shouldQueueJobsAboveConcurrencyCap() throws Exception {
+        var scheduler = new SolveScheduler(2, 2, 10, 10, new SimpleMeterRegistry());
+        var first = submit(scheduler, MANAGER_A);
+        var second = submit(scheduler, MANAGER_A);
+        var third = submit(scheduler, MANAGER_A);
+
+        Assertions.assertEquals(List.of(first, second), started);
+        Assertions.assertEquals(2, scheduler.getRunning());
+        Assertions.assertEquals(1, scheduler.getQueued());
+
+        first.complete(null);
+        Assertions.assertEquals(List.of(first, second, third), started);
+        Assertions.assertEquals(0, scheduler.getQueued());
+    }
+
+    @Test
+    public void shouldLetOwnersTakeTurns() throws Exception {
+        var scheduler = new SolveScheduler(1, 1, 10, 10, new SimpleMeterRegistry());
+        var running = submit(scheduler, MANAGER_A);
+        var a1 = submit(scheduler, MANAGER_A);
+        var a2 = submit(scheduler, MANAGER_A);
+        var b1 = submit(scheduler, MANAGER_B);
+
+        running.complete(null);
+        a1.complete(null);
+        b1.complete(null);
+        Assertions.assertEquals(List.of(running, a1, b1, a2), started);
+    }
+
+    @Test
+    public void shouldStartJobOfAnotherOwnerWhileOwnerIsAtQuota() throws Exception {
+        var scheduler = new SolveScheduler(2, 1, 10, 10, new SimpleMeterRegistry());
+        var a1 = submit(scheduler, MANAGER_A);
+        var a2 = submit(scheduler, MANAGER_A);
+        var b1 = submit(scheduler, MANAGER_B);
+
+        Assertions.assertEquals(List.of(a1, b1), started);
+        a1.complete(null);
+        Assertions.assertEquals(List.of(a1, b1, a2), started);
+    }
+
+    @Test
+    public void shouldRejectJobsWhenOwnerQueueIsFull() throws Exception {
+        var scheduler = new SolveScheduler(1, 1, 10, 1, new SimpleMeterRegistry());
+        submit(scheduler, MANAGER_A);
+        submit(scheduler, MANAGER_A);
+
+        var exception = Assertions.assertThrows(SolveQueueFullException.class, () -> submit(scheduler, MANAGER_A));
+        Assertions.assertTrue(exception.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        // other managers still have room in the queue
+        submit(scheduler, MANAGER_B);
+        Assertions.assertEquals(2, scheduler.getQueued());
+    }
+
+    @Test
+    public void shouldCancelQueuedJob() throws Exception {
+        var scheduler = new SolveScheduler(1, 1, 10, 10, new SimpleMeterRegistry());
+        var running = submit(scheduler, MANAGER_A);
+        var queued = submit(scheduler, MANAGER_A);
+
+        Assertions.assertFalse(scheduler.cancelQueued(running));
+        Assertions.assertTrue(scheduler.cancelQueued(queued));
+        Assertions.assertEquals(SolveJobStatus.CANCELLED, queued.getStatus());
+        // there is no solution of a job that never started, waiting requests get an error instead
+        var exception = Assertions.assertThrows(ExecutionException.class, () -> queued.getResult().get());
+        Assertions.assertTrue(exception.getCause() instanceof SolveJobCancelledException);
+
+        running.complete(null);
+        Assertions.assertEquals(List.of(running), started);
+        Assertions.assertEquals(0, scheduler.getRunning());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldHandOverProblemChangesOfQueuedJobOnceStarted() throws Exception {
+        var scheduler = new SolveScheduler(1, 1, 10, 10, new SimpleMeterRegistry());
+        submit(scheduler, MANAGER_A);
+        var queued = submit(scheduler, MANAGER_A);
+        queued.addProblemChange((workingSolution, director) -> {
+        });
+        Assertions.assertTrue(queued.isProblemChanged());
+
+        SolverJob<SolvedSchedule, UUID> solverJob = Mockito.mock(SolverJob.class);
+        queued.setSolverJob(solverJob);
+        Mockito.verify(solverJob).addProblemChange(Mockito.any());
+    }
+
+    private SolveJob submit(SolveScheduler scheduler, long ownerId) throws SolveQueueFullException {
+        var job = new SolveJob(UUID.randomUUID(), 1, ownerId, new SolveTermination(Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1)));
+        scheduler.submit(job, () -> started.add(job));
+        return job;
+    }
+}
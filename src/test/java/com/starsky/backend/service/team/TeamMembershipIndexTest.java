@@ -0,0 +1,38 @@
+package com.starsky.backend.service.team;
+
+import com.starsky.backend.repository.TeamMemberRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Set;
+
+public class TeamMembershipIndexTest {
+    private static final long EMPLOYEE = 1;
+
+    private final TeamMemberRepository teamMemberRepository = Mockito.mock(TeamMemberRepository.class);
+    private final TeamMembershipIndex index = new TeamMembershipIndex(teamMemberRepository, 10, Duration.ofMinutes(1));
+
+    @Test
+    public void shouldLoadTeamsOfMemberOnce() {
+        Mockito.when(teamMemberRepository.getTeamIdsByMemberId(EMPLOYEE)).thenReturn(Set.of(10L, 11L));
+
+        Assertions.assertTrue(index.isMember(EMPLOYEE, 10));
+        Assertions.assertTrue(index.isMember(EMPLOYEE, 11));
+        Assertions.assertFalse(index.isMember(EMPLOYEE, 12));
+        Mockito.verify(teamMemberRepository, Mockito.times(1)).getTeamIdsByMemberId(EMPLOYEE);
+    }
+
+    @Test
+    public void shouldReloadTeamsOfInvalidatedMember() {
+        Mockito.when(teamMemberRepository.getTeamIdsByMemberId(EMPLOYEE)).thenReturn(Set.of(10L));
+        Assertions.assertFalse(index.isMember(EMPLOYEE, 11));
+
+        Mockito.when(teamMemberRepository.getTeamIdsByMemberId(EMPLOYEE)).thenReturn(Set.of(10L, 11L));
+        Assertions.assertFalse(index.isMember(EMPLOYEE, 11));
+
+        index.invalidate(EMPLOYEE);
+        Assertions.assertTrue(index.isMember(EMPLOYEE, 11));
+    }
+}
@@ -0,0 +1,90 @@
+package com.starsky.backend.service.user;
+
+import com.starsky.backend.domain.user.NotificationType;
+import com.starsky.backend.domain.user.Role;
+import com.starsky.backend.domain.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+public class UserCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserCache cache = new UserCache(10, Duration.ofMinutes(1), meterRegistry);
+
+    private final User manager = user(1, "manager@starsky.net", Role.MANAGER, null);
+    private final User employee = user(2, "employee@starsky.net", Role.EMPLOYEE, manager);
+
+    @Test
+    public void shouldGetUsersByIdAndEmail() {
+        cache.put(employee);
+
+        Assertions.assertEquals(2, cache.getById(2).orElseThrow().getId());
+        Assertions.assertEquals(2, cache.getByEmail("employee@starsky.net").orElseThrow().getId());
+        Assertions.assertTrue(cache.getById(1).isEmpty());
+        Assertions.assertEquals(2, meterRegistry.get("starsky.users.cache.gets").tag("result", "hit").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("starsky.users.cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    public void shouldNotGetUserByOldEmail() {
+        cache.put(employee);
+        cache.put(user(2, "new@starsky.net", Role.EMPLOYEE, manager));
+
+        Assertions.assertTrue(cache.getByEmail("employee@starsky.net").isEmpty());
+        Assertions.assertEquals(2, cache.getByEmail("new@starsky.net").orElseThrow().getId());
+    }
+
+    @Test
+    public void shouldNotShareCachedUsers() {
+        cache.put(employee);
+        employee.setName("changed after caching");
+
+        var first = cache.getById(2).orElseThrow();
+        Assertions.assertEquals("name", first.getName());
+        first.setName("changed by a request");
+        Assertions.assertNotSame(first, cache.getById(2).orElseThrow());
+        Assertions.assertEquals("name", cache.getById(2).orElseThrow().getName());
+        Assertions.assertEquals(1, cache.getById(2).orElseThrow().getParentUser().getId());
+    }
+
+    @Test
+    public void shouldEvictUserAgainOnceTransactionHasEnded() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(employee);
+            cache.evict(employee);
+            Assertions.assertTrue(cache.getById(2).isEmpty());
+
+            // a lookup before the delete was committed caches the user again
+            cache.put(employee);
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+            Assertions.assertTrue(cache.getById(2).isEmpty());
+            Assertions.assertTrue(cache.getByEmail("employee@starsky.net").isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldInvalidateUserAndTheirManagersEmployees() {
+        cache.put(employee);
+        cache.putEmployees(manager.getId(), List.of(employee));
+
+        cache.invalidate(employee);
+        Assertions.assertTrue(cache.getById(2).isEmpty());
+        Assertions.assertTrue(cache.getByEmail("employee@starsky.net").isEmpty());
+        Assertions.assertTrue(cache.getEmployees(manager.getId()).isEmpty());
+    }
+
+    private static User user(long id, String email, Role role, User parentUser) {
+        var user = new User("name", email, null, "job title", null, true, NotificationType.EMAIL, role, parentUser, false);
+        user.setId(id);
+        return user;
+    }
+}